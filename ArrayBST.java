@@ -0,0 +1,457 @@
+/**
+ * ArrayBST.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 3
+ */
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A self-balancing (AVL) binary search tree stored in parallel arrays
+ * instead of one object per node. A node is an index: its value lives in
+ * data[i], its children in left[i] and right[i], and its height in
+ * height[i]. This removes the object header and reference fields of each
+ * BST node, and keeps the links of neighboring nodes close in memory.
+ * Removed slots are kept on a free list and reused by later inserts.
+ * @param <T> the generic data stored in the tree
+ */
+public class ArrayBST<T> implements Iterable<T> {
+    private static final int NIL = -1;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Object[] data;
+    private int[] left;
+    private int[] right;
+    private byte[] height;
+    private int root;
+    private int size;
+    private int used;
+    private int freeHead;
+    private int modCount;
+    private final Comparator<T> order;
+
+    /****CONSTRUCTORS****/
+
+    /**
+     * Creates an empty tree whose ordering is fixed at construction.
+     * @param order the way the tree is organized.
+     */
+    public ArrayBST(Comparator<T> order) {
+        this(order, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty tree with room for a number of values before
+     * its arrays need to grow.
+     * @param order the way the tree is organized.
+     * @param initialCapacity the number of values to make room for.
+     * @throws IllegalArgumentException when initialCapacity < 0
+     */
+    public ArrayBST(Comparator<T> order, int initialCapacity) throws IllegalArgumentException {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative.");
+        }
+        int capacity = Math.max(initialCapacity, 1);
+        this.data = new Object[capacity];
+        this.left = new int[capacity];
+        this.right = new int[capacity];
+        this.height = new byte[capacity];
+        this.root = NIL;
+        this.size = 0;
+        this.used = 0;
+        this.freeHead = NIL;
+        this.order = order;
+    }
+
+    /****ACCESSORS****/
+
+    /**
+     * Returns the ordering fixed at construction.
+     * @return the tree's Comparator.
+     */
+    public Comparator<T> getOrder() {
+        return order;
+    }
+
+    /**
+     * Determines whether the tree is empty.
+     * @return whether the tree is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the current size of the tree (number of nodes).
+     * @return the size of the tree.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the height of tree by counting edges.
+     * @return the height of the tree.
+     */
+    public int getHeight() {
+        return heightOf(root);
+    }
+
+    /**
+     * Returns the smallest value in the tree.
+     * @precondition !isEmpty()
+     * @return the smallest value in the tree.
+     * @throws NoSuchElementException when the precondition is violated.
+     */
+    @SuppressWarnings("unchecked")
+    public T findMin() throws NoSuchElementException {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Tree is empty.");
+        }
+        int node = root;
+        while (left[node] != NIL) {
+            node = left[node];
+        }
+        return (T) data[node];
+    }
+
+    /**
+     * Returns the largest value in the tree.
+     * @precondition !isEmpty()
+     * @return the largest value in the tree.
+     * @throws NoSuchElementException when the precondition is violated.
+     */
+    @SuppressWarnings("unchecked")
+    public T findMax() throws NoSuchElementException {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Tree is empty.");
+        }
+        int node = root;
+        while (right[node] != NIL) {
+            node = right[node];
+        }
+        return (T) data[node];
+    }
+
+    /**
+     * Searches for a specified value in the tree.
+     * @param value the value to search for.
+     * @return the data stored in that node of the tree, otherwise null.
+     */
+    @SuppressWarnings("unchecked")
+    public T search(T value) {
+        int node = root;
+        while (node != NIL) {
+            int comparison = order.compare(value, (T) data[node]);
+            if (comparison == 0) {
+                return (T) data[node];
+            }
+            node = (comparison < 0) ? left[node] : right[node];
+        }
+        return null;
+    }
+
+    /****MUTATORS****/
+
+    /**
+     * Inserts a new value in the tree.
+     * Note: updates nothing when an equal value is already in the tree.
+     * @param value the data to insert.
+     */
+    @SuppressWarnings("unchecked")
+    public void insert(T value) {
+        if (root == NIL) {
+            root = allocate(value);
+            modCount++;
+            return;
+        }
+        int[] path = new int[heightOf(root) + 1];
+        int depth = 0;
+        int node = root;
+        while (true) {
+            int comparison = order.compare(value, (T) data[node]);
+            if (comparison == 0) {
+                return; // Duplicate, nothing to insert
+            }
+            path[depth++] = node;
+            int[] side = (comparison < 0) ? left : right;
+            if (side[node] == NIL) {
+                int added = allocate(value);
+                // The arrays may have grown, so look the side up again
+                if (comparison < 0) {
+                    left[node] = added;
+                } else {
+                    right[node] = added;
+                }
+                break;
+            }
+            node = side[node];
+        }
+        modCount++;
+        retrace(path, depth);
+    }
+
+    /**
+     * Removes a value from the tree.
+     * Note: updates nothing when the element is not in the tree.
+     * @param value the value to remove.
+     */
+    @SuppressWarnings("unchecked")
+    public void remove(T value) {
+        if (root == NIL) {
+            return;
+        }
+        int[] path = new int[heightOf(root) + 1];
+        int depth = 0;
+        int node = root;
+        while (node != NIL) {
+            int comparison = order.compare(value, (T) data[node]);
+            if (comparison == 0) {
+                break;
+            }
+            path[depth++] = node;
+            node = (comparison < 0) ? left[node] : right[node];
+        }
+        if (node == NIL) {
+            return;
+        }
+
+        int replacement;
+        if (left[node] == NIL) {
+            replacement = right[node];
+        } else if (right[node] == NIL) {
+            replacement = left[node];
+        } else {
+            // Node with two children: move the smallest value of the
+            // right subtree here and unlink its slot instead
+            path[depth++] = node;
+            int successor = right[node];
+            while (left[successor] != NIL) {
+                path[depth++] = successor;
+                successor = left[successor];
+            }
+            data[node] = data[successor];
+            node = successor;
+            replacement = right[successor];
+        }
+
+        if (depth == 0) {
+            root = replacement;
+        } else if (left[path[depth - 1]] == node) {
+            left[path[depth - 1]] = replacement;
+        } else {
+            right[path[depth - 1]] = replacement;
+        }
+        release(node);
+        modCount++;
+        retrace(path, depth);
+    }
+
+    /**
+     * Removes all values, keeping the arrays for reuse.
+     */
+    public void clear() {
+        Arrays.fill(data, 0, used, null);
+        root = NIL;
+        size = 0;
+        used = 0;
+        freeHead = NIL;
+        modCount++;
+    }
+
+    /****ADDITIONAL OPERATIONS****/
+
+    /**
+     * Returns a lazy iterator over the data in ascending order.
+     * The tree must not be modified while the iterator is in use.
+     * @return an iterator from the smallest to the largest value.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private final int[] stack = new int[heightOf(root) + 1];
+            private int top = pushLeftSpine(root, stack, 0);
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return top > 0;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() throws NoSuchElementException {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException("Tree was modified.");
+                }
+                if (top == 0) {
+                    throw new NoSuchElementException("No more values.");
+                }
+                int node = stack[--top];
+                top = pushLeftSpine(right[node], stack, top);
+                return (T) data[node];
+            }
+        };
+    }
+
+    /**
+     * Returns a String containing the data in order followed by a new line.
+     * @return a String of data in order
+     */
+    public String inOrderString() {
+        StringBuilder inOrder = new StringBuilder();
+        for (T value : this) {
+            inOrder.append(value + "\n");
+        }
+        return inOrder.toString();
+    }
+
+    /****HELPERS****/
+
+    /**
+     * Takes a slot for a new leaf, reusing a freed slot when possible
+     * and doubling the arrays when all slots are taken.
+     * @param value the value to store.
+     * @return the index of the new node.
+     */
+    private int allocate(T value) {
+        int node;
+        if (freeHead != NIL) {
+            node = freeHead;
+            freeHead = left[node];
+        } else {
+            if (used == data.length) {
+                int capacity = data.length * 2;
+                data = Arrays.copyOf(data, capacity);
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+                height = Arrays.copyOf(height, capacity);
+            }
+            node = used++;
+        }
+        data[node] = value;
+        left[node] = NIL;
+        right[node] = NIL;
+        height[node] = 0;
+        size++;
+        return node;
+    }
+
+    /**
+     * Returns a slot to the free list, linked through the left array.
+     * @param node the index of the unlinked node.
+     */
+    private void release(int node) {
+        data[node] = null;
+        left[node] = freeHead;
+        freeHead = node;
+        size--;
+    }
+
+    /**
+     * Walks back up a search path after an update, repairing each node
+     * from the deepest one to the root and relinking rotated subtrees.
+     * @param path the nodes visited from the root downward.
+     * @param depth the number of nodes on the path.
+     */
+    private void retrace(int[] path, int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            int repaired = rebalance(path[i]);
+            if (repaired != path[i]) {
+                if (i == 0) {
+                    root = repaired;
+                } else if (left[path[i - 1]] == path[i]) {
+                    left[path[i - 1]] = repaired;
+                } else {
+                    right[path[i - 1]] = repaired;
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates the height of a node and restores the AVL property at
+     * that node with at most two rotations.
+     * @param node the root of the subtree to repair.
+     * @return the new root of the subtree.
+     */
+    private int rebalance(int node) {
+        update(node);
+        int balance = heightOf(left[node]) - heightOf(right[node]);
+        if (balance > 1) {
+            if (heightOf(left[left[node]]) < heightOf(right[left[node]])) {
+                left[node] = rotateLeft(left[node]);
+            }
+            return rotateRight(node);
+        } else if (balance < -1) {
+            if (heightOf(right[right[node]]) < heightOf(left[right[node]])) {
+                right[node] = rotateRight(right[node]);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    /**
+     * Rotates a subtree to the right around its root.
+     * @param node the root of the subtree, whose left child is not NIL.
+     * @return the new root of the subtree.
+     */
+    private int rotateRight(int node) {
+        int pivot = left[node];
+        left[node] = right[pivot];
+        right[pivot] = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    /**
+     * Rotates a subtree to the left around its root.
+     * @param node the root of the subtree, whose right child is not NIL.
+     * @return the new root of the subtree.
+     */
+    private int rotateLeft(int node) {
+        int pivot = right[node];
+        right[node] = left[pivot];
+        left[pivot] = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    /**
+     * Recomputes the cached height of a node from its children.
+     * @param node the node to update.
+     */
+    private void update(int node) {
+        height[node] = (byte) (1 + Math.max(heightOf(left[node]), heightOf(right[node])));
+    }
+
+    /**
+     * Returns the cached height of a subtree.
+     * @param node the root of the subtree.
+     * @return the height, or -1 for an empty subtree.
+     */
+    private int heightOf(int node) {
+        return (node == NIL) ? -1 : height[node];
+    }
+
+    /**
+     * Pushes a node and all of its left descendants.
+     * @param node the node at which to start.
+     * @param stack the stack of node indices.
+     * @param top the current number of entries on the stack.
+     * @return the new number of entries on the stack.
+     */
+    private int pushLeftSpine(int node, int[] stack, int top) {
+        while (node != NIL) {
+            stack[top++] = node;
+            node = left[node];
+        }
+        return top;
+    }
+}
@@ -0,0 +1,336 @@
+/**
+ * ArrayQueue.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 3
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A Queue stored in a circular array. The front and the end move around
+ * the array instead of allocating a node per enqueue, so once the array
+ * has grown to the working size the queue allocates nothing more. A
+ * growable queue doubles its array when full; a bounded queue keeps a
+ * fixed capacity and refuses to enqueue when full.
+ * @param <T> the generic data stored in the Queue
+ */
+public class ArrayQueue<T> implements Q<T> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Object[] items;
+    private int front;
+    private int size;
+    private final boolean bounded;
+
+    /****CONSTRUCTORS****/
+
+    /**
+     * Default constructor for the ArrayQueue class
+     * @postcondition a new empty, growable ArrayQueue
+     */
+    public ArrayQueue() {
+        this(DEFAULT_CAPACITY, false);
+    }
+
+    /**
+     * Creates an empty queue with room for a number of values.
+     * @param capacity the initial capacity, or the fixed capacity
+     * when bounded.
+     * @param bounded whether the capacity is fixed.
+     * @throws IllegalArgumentException when capacity < 1
+     */
+    public ArrayQueue(int capacity, boolean bounded) throws IllegalArgumentException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        this.items = new Object[capacity];
+        this.front = 0;
+        this.size = 0;
+        this.bounded = bounded;
+    }
+
+    /**
+     * Converts an array into a growable ArrayQueue
+     * @param array the array to copy into the Queue
+     */
+    public ArrayQueue(T[] array) {
+        this(Math.max(array == null ? 0 : array.length, DEFAULT_CAPACITY), false);
+        if (array != null) {
+            for (T element : array) {
+                enqueue(element);
+            }
+        }
+    }
+
+    /**
+     * Copy constructor for the ArrayQueue class
+     * @param original the ArrayQueue to copy
+     * @postcondition a new ArrayQueue object which is an identical,
+     * but separate, copy of the original, with the same capacity
+     */
+    public ArrayQueue(ArrayQueue<T> original) {
+        this(original == null ? DEFAULT_CAPACITY : original.items.length,
+             original != null && original.bounded);
+        if (original != null) {
+            for (int i = 0; i < original.size; i++) {
+                items[i] = original.items[original.slot(i)];
+            }
+            size = original.size;
+        }
+    }
+
+    /****ACCESSORS****/
+
+    /**
+     * Returns the value stored at the front
+     * of the Queue
+     * @return the value at the front of the queue
+     * @precondition !isEmpty()
+     * @throws NoSuchElementException when the
+     * precondition is violated
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getFront() throws NoSuchElementException {
+        if (isEmpty()) {
+            throw new NoSuchElementException("getFront(): Queue is empty!");
+        }
+        return (T) items[front];
+    }
+
+    /**
+     * Returns the size of the Queue
+     * @return the size from 0 to n
+     */
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Determines whether a Queue is empty
+     * @return whether the Queue contains no elements
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Determines whether a bounded Queue has reached its capacity.
+     * A growable Queue is never full.
+     * @return whether enqueue would be refused
+     */
+    public boolean isFull() {
+        return bounded && size == items.length;
+    }
+
+    /**
+     * Returns the number of values the array can hold before it grows,
+     * or the fixed capacity of a bounded Queue.
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return items.length;
+    }
+
+    /****MUTATORS****/
+
+    /**
+     * Inserts a new value at the end of the Queue
+     * @param data the new data to insert
+     * @postcondition the value is at the end of the Queue
+     * @throws IllegalStateException when a bounded Queue is full
+     */
+    @Override
+    public void enqueue(T data) throws IllegalStateException {
+        if (size == items.length) {
+            if (bounded) {
+                throw new IllegalStateException("enqueue(): Queue is full!");
+            }
+            grow();
+        }
+        items[slot(size)] = data;
+        size++;
+    }
+
+    /**
+     * Removes the front element in the Queue
+     * @precondition !isEmpty()
+     * @throws NoSuchElementException when
+     * the precondition is violated
+     * @postcondition the front element has been removed
+     */
+    @Override
+    public void dequeue() throws NoSuchElementException {
+        if (isEmpty()) {
+            throw new NoSuchElementException("dequeue(): Queue is empty!");
+        }
+        items[front] = null;
+        front = slot(1);
+        size--;
+    }
+
+    /**
+     * Inserts each value, in order, at the end of the Queue. When the
+     * number of values is known up front, the array grows at most once
+     * and a bounded Queue refuses the whole batch before inserting any.
+     * @param values the values to insert
+     * @postcondition the values are at the end of the Queue
+     * @throws IllegalStateException when a bounded Queue is full
+     */
+    public void enqueueAll(Iterable<? extends T> values) throws IllegalStateException {
+        if (values instanceof Collection) {
+            int needed = size + ((Collection<?>) values).size();
+            if (needed > items.length) {
+                if (bounded) {
+                    throw new IllegalStateException("enqueueAll(): Queue is full!");
+                }
+                while (needed > items.length) {
+                    grow();
+                }
+            }
+        }
+        for (T value : values) {
+            enqueue(value);
+        }
+    }
+
+    /**
+     * Removes up to max values from the front of the Queue and adds
+     * them, in order, to a collection
+     * @param target the collection receiving the values
+     * @param max the largest number of values to move
+     * @return the number of values moved
+     * @throws IllegalArgumentException when max < 0
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(Collection<? super T> target, int max) throws IllegalArgumentException {
+        if (max < 0) {
+            throw new IllegalArgumentException("drainTo(): max cannot be negative!");
+        }
+        int count = Math.min(max, size);
+        for (int i = 0; i < count; i++) {
+            target.add((T) items[front]);
+            items[front] = null;
+            front = slot(1);
+        }
+        size -= count;
+        return count;
+    }
+
+    /**
+     * Removes up to n values from the front of the Queue
+     * @param n the largest number of values to remove
+     * @return the removed values in order, fewer than n when the
+     * Queue runs out
+     * @throws IllegalArgumentException when n < 0
+     */
+    public List<T> dequeueBatch(int n) throws IllegalArgumentException {
+        List<T> batch = new ArrayList<>(Math.min(Math.max(n, 0), size));
+        drainTo(batch, n);
+        return batch;
+    }
+
+    /**
+     * Removes all values, keeping the array for reuse.
+     * @postcondition the Queue is empty
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            items[slot(i)] = null;
+        }
+        front = 0;
+        size = 0;
+    }
+
+    /****ADDITIONAL OPERATIONS****/
+
+    /**
+     * Returns the values stored in the Queue
+     * as a String, separated by a blank space
+     * with a new line character at the end
+     * @return a String of Queue values
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            sb.append(items[slot(i)]).append(" ");
+        }
+        sb.append("\n");
+        return sb.toString();
+    }
+
+    /**
+     * Determines whether two ArrayQueues contain
+     * the same values in the same order
+     * @param obj the Object to compare to this
+     * @return whether obj and this are equal
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        ArrayQueue<?> other = (ArrayQueue<?>) obj;
+        if (size != other.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            Object mine = items[slot(i)];
+            Object theirs = other.items[other.slot(i)];
+            if (mine == null ? theirs != null : !mine.equals(theirs)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash code consistent with equals
+     * @return a hash of the values in order
+     */
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            Object value = items[slot(i)];
+            hash = 31 * hash + (value == null ? 0 : value.hashCode());
+        }
+        return hash;
+    }
+
+    /****HELPERS****/
+
+    /**
+     * Returns the array slot of the value a number of places behind
+     * the front, wrapping around the end of the array.
+     * @param offset the distance from the front, from 0 to capacity
+     * @return the array index
+     */
+    private int slot(int offset) {
+        int index = front + offset;
+        return (index >= items.length) ? index - items.length : index;
+    }
+
+    /**
+     * Doubles the array, keeping the front in place and moving the
+     * values that had wrapped around to just past the old end.
+     */
+    private void grow() {
+        Object[] larger = Arrays.copyOf(items, items.length * 2);
+        int wrapped = front + size - items.length;
+        if (wrapped > 0) {
+            System.arraycopy(items, 0, larger, items.length, wrapped);
+            Arrays.fill(larger, 0, wrapped, null);
+        }
+        items = larger;
+    }
+}
@@ -4,85 +4,200 @@
  * CIS 22C Lab 9
  */
 import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class BST<T> implements Iterable<T> {
+    /** Smallest array range that is worth building on another thread. */
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
 
-public class BST<T> {
     private class Node {
         private T data;
         private Node left;
         private Node right;
+        private int height;
+        private int size;
 
         public Node(T data) {
             this.data = data;
             left = null;
             right = null;
+            height = 0;
+            size = 1;
         }
     }
 
     private Node root;
+    private final boolean balanced;
+    private final Comparator<T> order;
+    private int modCount;
 
     /***CONSTRUCTORS***/
 
     /**
      * Default constructor for BST sets root to null.
+     * The tree does not rebalance itself on insert or remove.
      */
     public BST() {
+        this(false);
+    }
+
+    /**
+     * Creates an empty BST, optionally in self-balancing (AVL) mode.
+     * A balanced tree keeps its height O(log n) under any sequence of
+     * inserts and removes, including sorted and reverse-sorted input.
+     * @param balanced whether the tree rebalances itself after updates.
+     */
+    public BST(boolean balanced) {
+        this(null, balanced);
+    }
+
+    /**
+     * Creates an empty BST whose ordering is fixed at construction.
+     * The methods without a Comparator argument use this ordering, and
+     * the methods that take one reject any other ordering.
+     * @param order the way the tree is organized.
+     */
+    public BST(Comparator<T> order) {
+        this(order, false);
+    }
+
+    /**
+     * Creates an empty BST whose ordering is fixed at construction,
+     * optionally in self-balancing (AVL) mode.
+     * @param order the way the tree is organized, or null to pass a
+     *     Comparator on every call instead.
+     * @param balanced whether the tree rebalances itself after updates.
+     */
+    public BST(Comparator<T> order, boolean balanced) {
         root = null;
+        this.order = order;
+        this.balanced = balanced;
     }
 
     /**
      * Copy constructor for BST.
+     * Clones the structure of the tree directly in O(n).
      * @param bst the BST of which to make a copy.
      * @param cmp the way the tree is organized.
+     * @precondition cmp is the ordering bst was built with.
      */
     public BST(BST<T> bst, Comparator<T> cmp) {
+        this.balanced = bst != null && bst.balanced;
+        this.order = (bst == null) ? null : bst.order;
+        checkOrder(cmp);
         if (bst != null) {
-            this.root = null;
-            copyHelper(bst.root, cmp);
+            this.root = copyHelper(bst.root);
         }
     }
 
     /**
      * Helper method for copy constructor.
-     * @param node the node containing data to copy.
-     * @param cmp the way the tree is organized.
+     * Copies each node of the given subtree in pre order, keeping
+     * its place in the structure along with its cached height and size.
+     * @param node the root of the subtree containing data to copy.
+     * @return the root of the copy.
      */
-    private void copyHelper(Node node, Comparator<T> cmp) {
-        if (node != null) {
-            insert(node.data, cmp);
-            copyHelper(node.left, cmp);
-            copyHelper(node.right, cmp);
+    private Node copyHelper(Node node) {
+        if (node == null) {
+            return null;
+        }
+        Node copy = copyNode(node);
+        Node[] originals = newPath(node.height + 2);
+        Node[] copies = newPath(node.height + 2);
+        int top = 0;
+        originals[top] = node;
+        copies[top++] = copy;
+        while (top > 0) {
+            Node original = originals[--top];
+            Node current = copies[top];
+            if (original.right != null) {
+                current.right = copyNode(original.right);
+                originals[top] = original.right;
+                copies[top++] = current.right;
+            }
+            if (original.left != null) {
+                current.left = copyNode(original.left);
+                originals[top] = original.left;
+                copies[top++] = current.left;
+            }
         }
+        return copy;
+    }
+
+    /**
+     * Creates an unlinked copy of a single node.
+     * @param node the node to copy.
+     * @return a node with the same data, height and size.
+     */
+    private Node copyNode(Node node) {
+        Node copy = new Node(node.data);
+        copy.height = node.height;
+        copy.size = node.size;
+        return copy;
     }
 
     /**
     * Creates a BST of minimal height from an array of values.
+    * Large arrays are checked and built in parallel on the common
+    * ForkJoinPool.
     * @param array the list of values to insert.
     * @param cmp the way the tree is organized.
     * @precondition array must be sorted in ascending order.
     * @throws IllegalArgumentException when the array is unsorted.
     */
     public BST(T[] array, Comparator<T> cmp) throws IllegalArgumentException {
+        this.balanced = false;
+        this.order = null;
         if (array == null || array.length == 0) {
             root = null;
             return;
         }
-        if (!isSorted(array, cmp)) {
-            throw new IllegalArgumentException("Array is not sorted.");
+        root = new BuildTask(array, 0, array.length - 1, cmp).invoke();
+    }
+
+    /**
+     * Builds a BST of minimal height from a sorted array, splitting the
+     * work across the given pool.
+     * @param <T> the type of data stored in the tree.
+     * @param sorted the values in ascending order.
+     * @param order the way the tree is organized, which is bound to the tree.
+     * @param balanced whether the tree rebalances itself after updates.
+     * @param pool the pool whose threads build the tree.
+     * @return the new tree.
+     * @precondition sorted must be sorted in ascending order.
+     * @throws IllegalArgumentException when the array is unsorted.
+     */
+    public static <T> BST<T> fromSorted(T[] sorted, Comparator<T> order, boolean balanced,
+            ForkJoinPool pool) throws IllegalArgumentException {
+        BST<T> bst = new BST<>(order, balanced);
+        if (sorted != null && sorted.length > 0) {
+            bst.root = pool.invoke(bst.new BuildTask(sorted, 0, sorted.length - 1, order));
         }
-        root = arrayHelper(0, array.length - 1, array);
+        return bst;
     }
 
     /**
      * Private helper method for array constructor
-     * to check for a sorted array.
+     * to check for a sorted range of an array. Each index is
+     * compared with the one before it.
      * @param array the array to check.
+     * @param begin beginning array index.
+     * @param end ending array index.
      * @param cmp the way the tree is organized.
-     * @return whether the array is sorted.
+     * @return whether the range is sorted.
      */
-    private boolean isSorted(T[] array, Comparator<T> cmp) {
-        if (array == null || array.length <= 1) return true;
-        for (int i = 1; i < array.length; i++) {
+    private boolean isSorted(T[] array, int begin, int end, Comparator<T> cmp) {
+        for (int i = Math.max(begin, 1); i <= end; i++) {
             if (cmp.compare(array[i - 1], array[i]) > 0) {
                 return false;
             }
@@ -90,6 +205,48 @@ public class BST<T> {
         return true;
     }
 
+    /**
+     * Fork-join task for the array constructor. Splits the range at its
+     * middle like arrayHelper, building the two halves on different
+     * threads until the range falls below PARALLEL_THRESHOLD. Each task
+     * also checks the order of its own range.
+     */
+    private class BuildTask extends RecursiveTask<Node> {
+        private static final long serialVersionUID = 1L;
+        private final T[] array;
+        private final int begin;
+        private final int end;
+        private final Comparator<T> cmp;
+
+        public BuildTask(T[] array, int begin, int end, Comparator<T> cmp) {
+            this.array = array;
+            this.begin = begin;
+            this.end = end;
+            this.cmp = cmp;
+        }
+
+        @Override
+        protected Node compute() throws IllegalArgumentException {
+            if (end - begin < PARALLEL_THRESHOLD) {
+                if (!isSorted(array, begin, end, cmp)) {
+                    throw new IllegalArgumentException("Array is not sorted.");
+                }
+                return arrayHelper(begin, end, array);
+            }
+            int mid = (begin + end) / 2;
+            if (!isSorted(array, mid, mid, cmp)) {
+                throw new IllegalArgumentException("Array is not sorted.");
+            }
+            BuildTask leftTask = new BuildTask(array, begin, mid - 1, cmp);
+            leftTask.fork();
+            Node node = new Node(array[mid]);
+            node.right = new BuildTask(array, mid + 1, end, cmp).compute();
+            node.left = leftTask.join();
+            update(node);
+            return node;
+        }
+    }
+
     /**
      * Recursive helper for the array constructor.
      * @param begin beginning array index.
@@ -104,9 +261,86 @@ public class BST<T> {
         Node node = new Node(array[mid]);
         node.left = arrayHelper(begin, mid - 1, array);
         node.right = arrayHelper(mid + 1, end, array);
+        update(node);
         return node;
     }
 
+    /**
+     * Builds a BST of minimal height in O(n) from values supplied in
+     * ascending order, without buffering them first.
+     * @param <T> the type of data stored in the tree.
+     * @param sorted the values in ascending order.
+     * @param size the number of values to take from the iterator.
+     * @param order the way the tree is organized, which is bound to the tree.
+     * @param balanced whether the tree rebalances itself after updates.
+     * @return the new tree.
+     * @precondition sorted yields at least size values in ascending order.
+     * @throws IllegalArgumentException when the precondition is violated.
+     */
+    public static <T> BST<T> fromSorted(Iterator<T> sorted, int size, Comparator<T> order,
+            boolean balanced) throws IllegalArgumentException {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size cannot be negative.");
+        }
+        BST<T> bst = new BST<>(order, balanced);
+        bst.root = bst.sortedHelper(sorted, size, new Object[1]);
+        return bst;
+    }
+
+    /**
+     * Recursive helper for fromSorted, which builds the left subtree,
+     * then the root, then the right subtree, so values are consumed in
+     * order. The recursion depth is the height of the result, O(log n).
+     * @param sorted the values in ascending order.
+     * @param size the number of values in this subtree.
+     * @param previous holds the last value consumed, to check the order.
+     * @return the root of the new subtree.
+     * @throws IllegalArgumentException when the values run out early or
+     * are not sorted.
+     */
+    @SuppressWarnings("unchecked")
+    private Node sortedHelper(Iterator<T> sorted, int size, Object[] previous)
+            throws IllegalArgumentException {
+        if (size == 0) {
+            return null;
+        }
+        int leftSize = (size - 1) / 2;
+        Node left = sortedHelper(sorted, leftSize, previous);
+        if (!sorted.hasNext()) {
+            throw new IllegalArgumentException("Fewer values than the given size.");
+        }
+        T data = sorted.next();
+        if (previous[0] != null && order.compare((T) previous[0], data) > 0) {
+            throw new IllegalArgumentException("Values are not sorted.");
+        }
+        previous[0] = data;
+        Node node = new Node(data);
+        node.left = left;
+        node.right = sortedHelper(sorted, size - 1 - leftSize, previous);
+        update(node);
+        return node;
+    }
+
+    /**
+     * Creates an unbalanced tree holding 0 to n - 1 as a single chain of
+     * right children, the shape that inserting them in ascending order
+     * gives. Building it directly takes O(n) instead of the O(n^2) of n
+     * inserts, so tests can reach depths that would overflow the stack
+     * of a recursive operation.
+     * @param n the number of nodes.
+     * @return the degenerate tree, ordered by Integer.compare.
+     */
+    static BST<Integer> chain(int n) {
+        BST<Integer> bst = new BST<>(Integer::compare, false);
+        for (int i = n - 1; i >= 0; i--) {
+            BST<Integer>.Node node = bst.new Node(i);
+            node.right = bst.root;
+            bst.update(node);
+            bst.root = node;
+        }
+        return bst;
+    }
+
     /***ACCESSORS***/
 
     /**
@@ -122,6 +356,22 @@ public class BST<T> {
         return root.data;
     }
 
+    /**
+     * Determines whether the tree rebalances itself after updates.
+     * @return whether the tree is in self-balancing mode.
+     */
+    public boolean isBalanced() {
+        return balanced;
+    }
+
+    /**
+     * Returns the ordering fixed at construction.
+     * @return the tree's Comparator, or null if none was bound.
+     */
+    public Comparator<T> getOrder() {
+        return order;
+    }
+
     /**
      * Determines whether the tree is empty.
      * @return whether the tree is empty.
@@ -140,12 +390,12 @@ public class BST<T> {
 
     /**
      * Helper method for the getSize method.
-     * @param node the current node to count.
-     * @return the size of the tree.
+     * Reads the subtree size cached in the node.
+     * @param node the root of the subtree to count.
+     * @return the number of nodes in the subtree.
      */
     private int getSize(Node node) {
-        if (node == null) return 0;
-        return 1 + getSize(node.left) + getSize(node.right);
+        return (node == null) ? 0 : node.size;
     }
 
     /**
@@ -158,14 +408,12 @@ public class BST<T> {
 
     /**
      * Helper method for getHeight method.
-     * @param node the current node whose height to count.
-     * @return the height of the tree.
+     * Reads the height cached in the node.
+     * @param node the current node whose height to return.
+     * @return the height of the subtree, or -1 for an empty subtree.
      */
     private int getHeight(Node node) {
-        if (node == null) {
-            return -1;
-        }
-        return 1 + Math.max(getHeight(node.left), getHeight(node.right));
+        return (node == null) ? -1 : node.height;
     }
 
     /**
@@ -182,12 +430,15 @@ public class BST<T> {
     }
 
     /**
-     * Recursive helper method to findMin method.
-     * @param node the current node to check if it is the smallest.
-     * @return the smallest value in the tree.
+     * Helper method to findMin method.
+     * @param node the root of the subtree to search.
+     * @return the smallest value in the subtree.
      */
     private T findMin(Node node) {
-        return (node.left == null) ? node.data : findMin(node.left);
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.data;
     }
 
     /**
@@ -204,12 +455,25 @@ public class BST<T> {
     }
 
     /**
-     * Recursive helper method to findMax method.
-     * @param node the current node to check if it is the largest.
-     * @return the largest value in the tree.
+     * Helper method to findMax method.
+     * @param node the root of the subtree to search.
+     * @return the largest value in the subtree.
      */
     private T findMax(Node node) {
-        return (node.right == null) ? node.data : findMax(node.right);
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.data;
+    }
+
+    /**
+     * Searches for a specified value using the tree's own ordering.
+     * @param data the value to search for.
+     * @return the data stored in that Node of the tree, otherwise null.
+     * @throws IllegalStateException when the tree has no bound ordering.
+     */
+    public T search(T data) throws IllegalStateException {
+        return search(data, boundOrder());
     }
 
     /**
@@ -220,76 +484,180 @@ public class BST<T> {
      * @return the data stored in that Node of the tree, otherwise null.
      */
     public T search(T data, Comparator<T> cmp) {
-        if (root == null) {
-            return null;
+        checkOrder(cmp);
+        Node node = root;
+        while (node != null) {
+            int comparison = cmp.compare(data, node.data);
+            if (comparison == 0) {
+                return node.data;
+            }
+            node = (comparison < 0) ? node.left : node.right;
         }
-        return search(data, root, cmp); 
+        return null;
     }
 
     /**
-     * Helper method for the search method.
-     * @param data the data to search for.
-     * @param node the current node to check.
-     * @param cmp the Comparator that determines how the BST is organized.
-     * @return the data stored in that Node of the tree, otherwise null.
+     * Returns the value of the given rank, that is the value with
+     * exactly k smaller values in the tree.
+     * Use select(getSize() - 1 - k) for the k-th largest value.
+     * @param k the 0-based rank of the value.
+     * @precondition 0 <= k < getSize()
+     * @return the value of rank k.
+     * @throws IndexOutOfBoundsException when the precondition is violated.
      */
-    private T search(T data, Node node, Comparator<T> cmp) {
-        if (node == null) {
-            return null;
+    public T select(int k) throws IndexOutOfBoundsException {
+        if (k < 0 || k >= getSize()) {
+            throw new IndexOutOfBoundsException("Rank out of bounds");
         }
-        
-        int comparison = cmp.compare(data, node.data);
-        if (comparison == 0) {
-            return node.data;
-        } else if (comparison < 0) {
-            return search(data, node.left, cmp);
-        } else {
-            return search(data, node.right, cmp);
+        Node node = root;
+        while (true) {
+            int leftSize = getSize(node.left);
+            if (k < leftSize) {
+                node = node.left;
+            } else if (k > leftSize) {
+                k -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.data;
+            }
         }
     }
 
-    /***MUTATORS***/
+    /**
+     * Returns the rank of a value using the tree's own ordering.
+     * @param data the value to rank, which need not be in the tree.
+     * @return the number of smaller values, from 0 to getSize().
+     * @throws IllegalStateException when the tree has no bound ordering.
+     */
+    public int rank(T data) throws IllegalStateException {
+        return rank(data, boundOrder());
+    }
 
     /**
-    * Inserts a new node in the tree.
-    * @param data the data to insert.
-    * @param cmp the Comparator indicating how data in the tree is ordered.
-    */
-    public void insert(T data, Comparator<T> cmp) {
-        insert(data, root, cmp);
+     * Returns the rank of a value, that is the number of values
+     * in the tree that are smaller than it.
+     * @param data the value to rank, which need not be in the tree.
+     * @param cmp the Comparator indicating how data in the tree is ordered.
+     * @return the number of smaller values, from 0 to getSize().
+     */
+    public int rank(T data, Comparator<T> cmp) {
+        checkOrder(cmp);
+        return countBelow(data, false, cmp);
     }
 
     /**
-     * Helper method to insert.
-     * Inserts a new value in the tree.
-     * @param data the data to insert.
-     * @param node the current node in the search for the correct insert
-     *     location.
+     * Counts the values between two inclusive bounds using the tree's
+     * own ordering.
+     * @param lo the lower bound.
+     * @param hi the upper bound.
+     * @return the number of values v with lo <= v <= hi.
+     * @throws IllegalStateException when the tree has no bound ordering.
+     */
+    public int countInRange(T lo, T hi) throws IllegalStateException {
+        return countInRange(lo, hi, boundOrder());
+    }
+
+    /**
+     * Counts the values between two bounds, both inclusive.
+     * @param lo the lower bound.
+     * @param hi the upper bound.
      * @param cmp the Comparator indicating how data in the tree is ordered.
+     * @return the number of values v with lo <= v <= hi.
      */
-    private void insert(T data, Node node, Comparator<T> cmp) {
-        if (node == null) {
-            // Here we need to handle the case when the root is null
-            // but since we can't modify the root directly, we need to ensure
-            // that the insert method is called correctly.
-            root = new Node(data); // Create a new root if the tree is empty
-            return; // Exit the method
+    public int countInRange(T lo, T hi, Comparator<T> cmp) {
+        checkOrder(cmp);
+        if (cmp.compare(lo, hi) > 0) {
+            return 0;
         }
-    
-        int comparison = cmp.compare(data, node.data);
-        if (comparison < 0) {
-            if (node.left == null) {
-                node.left = new Node(data); // Insert new node
+        return countBelow(hi, true, cmp) - countBelow(lo, false, cmp);
+    }
+
+    /**
+     * Helper method for rank and countInRange.
+     * Counts the values below a bound in a single descent.
+     * @param data the bound.
+     * @param inclusive whether values equal to the bound are counted.
+     * @param cmp the Comparator indicating how data in the tree is ordered.
+     * @return the number of values below the bound.
+     */
+    private int countBelow(T data, boolean inclusive, Comparator<T> cmp) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            int comparison = cmp.compare(data, node.data);
+            if (comparison < 0 || (comparison == 0 && !inclusive)) {
+                node = node.left;
             } else {
-                insert(data, node.left, cmp); // Recur on the left child
+                count += getSize(node.left) + 1;
+                if (comparison == 0) {
+                    return count;
+                }
+                node = node.right;
             }
-        } else if (comparison > 0) {
-            if (node.right == null) {
-                node.right = new Node(data); // Insert new node
+        }
+        return count;
+    }
+
+    /***MUTATORS***/
+
+    /**
+     * Inserts a new node in the tree using the tree's own ordering.
+     * @param data the data to insert.
+     * @throws IllegalStateException when the tree has no bound ordering.
+     */
+    public void insert(T data) throws IllegalStateException {
+        insert(data, boundOrder());
+    }
+
+    /**
+    * Inserts a new node in the tree.
+    * Note: updates nothing when a value comparing equal to data is
+    * already in the tree. To keep values that share a key, order them
+    * with a Comparator that breaks ties on a secondary key.
+    * @param data the data to insert.
+    * @param cmp the Comparator indicating how data in the tree is ordered.
+    */
+    public void insert(T data, Comparator<T> cmp) {
+        checkOrder(cmp);
+        if (root == null) {
+            root = new Node(data);
+            modCount++;
+            return;
+        }
+        Node[] path = newPath(root.height + 1);
+        int depth = 0;
+        Node node = root;
+        while (true) {
+            int comparison = cmp.compare(data, node.data);
+            if (comparison == 0) {
+                return; // Duplicate, nothing to insert
+            }
+            path[depth++] = node;
+            if (comparison < 0) {
+                if (node.left == null) {
+                    node.left = new Node(data);
+                    break;
+                }
+                node = node.left;
             } else {
-                insert(data, node.right, cmp); // Recur on the right child
+                if (node.right == null) {
+                    node.right = new Node(data);
+                    break;
+                }
+                node = node.right;
             }
         }
+        modCount++;
+        retrace(path, depth);
+    }
+
+    /**
+     * Removes a value from the BST using the tree's own ordering.
+     * @param data the value to remove.
+     * @throws IllegalStateException when the tree has no bound ordering.
+     */
+    public void remove(T data) throws IllegalStateException {
+        remove(data, boundOrder());
     }
 
     /**
@@ -299,38 +667,576 @@ public class BST<T> {
      * Note: updates nothing when the element is not in the tree.
      */
     public void remove(T data, Comparator<T> cmp) {
-        root = remove(data, root, cmp);
+        checkOrder(cmp);
+        if (root == null) {
+            return;
+        }
+        Node[] path = newPath(root.height + 1);
+        int depth = 0;
+        Node node = root;
+        while (node != null) {
+            int comparison = cmp.compare(data, node.data);
+            if (comparison == 0) {
+                break;
+            }
+            path[depth++] = node;
+            node = (comparison < 0) ? node.left : node.right;
+        }
+        if (node == null) {
+            return;
+        }
+
+        Node replacement;
+        if (node.left == null) {
+            replacement = node.right;
+        } else if (node.right == null) {
+            replacement = node.left;
+        } else {
+            // Node with two children: take the smallest value from the
+            // right subtree and unlink that node instead
+            path[depth++] = node;
+            Node successor = node.right;
+            while (successor.left != null) {
+                path[depth++] = successor;
+                successor = successor.left;
+            }
+            node.data = successor.data;
+            node = successor;
+            replacement = successor.right;
+        }
+
+        if (depth == 0) {
+            root = replacement;
+        } else if (path[depth - 1].left == node) {
+            path[depth - 1].left = replacement;
+        } else {
+            path[depth - 1].right = replacement;
+        }
+        modCount++;
+        retrace(path, depth);
     }
 
     /**
-     * Helper method to the remove method.
-     * @param data the data to remove.
-     * @param node the current node.
-     * @param cmp the Comparator indicating how data in the tree is organized.
-     * @return an updated reference variable.
+     * Walks back up a search path after an update, repairing each node
+     * from the deepest one to the root and relinking rotated subtrees.
+     * @param path the nodes visited from the root downward.
+     * @param depth the number of nodes on the path.
      */
-    private Node remove(T data, Node node, Comparator<T> cmp) {
-        if (node == null) return null;
+    private void retrace(Node[] path, int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            Node repaired = rebalance(path[i]);
+            if (repaired != path[i]) {
+                if (i == 0) {
+                    root = repaired;
+                } else if (path[i - 1].left == path[i]) {
+                    path[i - 1].left = repaired;
+                } else {
+                    path[i - 1].right = repaired;
+                }
+            }
+        }
+    }
 
-        int comparison = cmp.compare(data, node.data);
-        if (comparison < 0) {
-            node.left = remove(data, node.left, cmp);
-        } else if (comparison > 0) {
-            node.right = remove(data, node.right, cmp);
-        } else {
-            // Node to be deleted found
-            if (node.left == null) return node.right;
-            if (node.right == null) return node.left;
+    /**
+     * Allocates a stack of nodes for iterative traversals and updates.
+     * Cached heights bound how deep any path in the tree can be.
+     * @param length the capacity of the stack.
+     * @return an empty array of nodes.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Node[] newPath(int length) {
+        return (Node[]) new BST.Node[length];
+    }
 
-            // Node with two children
-            node.data = findMin(node.right); // Get the smallest value from the right subtree
-            node.right = remove(node.data, node.right, cmp); // Remove the smallest value
+    /**
+     * Returns the ordering fixed at construction for the methods
+     * that do not take a Comparator.
+     * @return the tree's Comparator.
+     * @throws IllegalStateException when no ordering was bound.
+     */
+    private Comparator<T> boundOrder() throws IllegalStateException {
+        if (order == null) {
+            throw new IllegalStateException("Tree has no bound ordering.");
+        }
+        return order;
+    }
+
+    /**
+     * Guards against organizing a bound tree with a different ordering,
+     * which would silently corrupt it.
+     * @param cmp the Comparator passed by the caller.
+     * @throws IllegalArgumentException when cmp does not match the
+     * tree's bound ordering.
+     */
+    private void checkOrder(Comparator<T> cmp) throws IllegalArgumentException {
+        if (order != null && cmp != order && !order.equals(cmp)) {
+            throw new IllegalArgumentException("Comparator does not match the tree's ordering.");
+        }
+    }
+
+    /***BALANCING***/
+
+    /**
+     * Recomputes the cached height and subtree size of a node
+     * from its children.
+     * @param node the node to update.
+     */
+    private void update(Node node) {
+        node.height = 1 + Math.max(getHeight(node.left), getHeight(node.right));
+        node.size = 1 + getSize(node.left) + getSize(node.right);
+    }
+
+    /**
+     * Updates the height and size of a node and, in balanced mode, restores the
+     * AVL property at that node with at most two rotations.
+     * @param node the root of the subtree to repair.
+     * @return the new root of the subtree.
+     */
+    private Node rebalance(Node node) {
+        update(node);
+        if (!balanced) {
+            return node;
+        }
+        int balance = getHeight(node.left) - getHeight(node.right);
+        if (balance > 1) {
+            if (getHeight(node.left.left) < getHeight(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        } else if (balance < -1) {
+            if (getHeight(node.right.right) < getHeight(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
         }
         return node;
     }
 
+    /**
+     * Rotates a subtree to the right around its root.
+     * @param node the root of the subtree, whose left child is not null.
+     * @return the new root of the subtree.
+     */
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    /**
+     * Rotates a subtree to the left around its root.
+     * @param node the root of the subtree, whose right child is not null.
+     * @return the new root of the subtree.
+     */
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    /***CURSORS***/
+
+    /**
+     * Returns a lazy iterator over the data in ascending order.
+     * The tree must not be modified while the iterator is in use.
+     * @return an iterator from the smallest to the largest value.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new TreeIterator(null, null, null, false);
+    }
+
+    /**
+     * Returns a lazy iterator over the data in descending order.
+     * @return an iterator from the largest to the smallest value.
+     */
+    public Iterator<T> descendingIterator() {
+        return new TreeIterator(null, null, null, true);
+    }
+
+    /**
+     * Returns a lazy ascending iterator over lo <= v <= hi using the
+     * tree's own ordering.
+     * @param lo the lower bound, or null for no lower bound.
+     * @param hi the upper bound, or null for no upper bound.
+     * @return an iterator over lo <= v <= hi.
+     * @throws IllegalStateException when the tree has no bound ordering.
+     */
+    public Iterator<T> range(T lo, T hi) throws IllegalStateException {
+        return range(lo, hi, boundOrder());
+    }
+
+    /**
+     * Returns a lazy iterator over the values between two bounds,
+     * both inclusive, in ascending order. Only the values visited are
+     * touched, so the cost is O(log n + k) for k returned values.
+     * @param lo the lower bound, or null for no lower bound.
+     * @param hi the upper bound, or null for no upper bound.
+     * @param cmp the Comparator indicating how data in the tree is ordered.
+     * @return an iterator over lo <= v <= hi.
+     */
+    public Iterator<T> range(T lo, T hi, Comparator<T> cmp) {
+        checkOrder(cmp);
+        return new TreeIterator(lo, hi, cmp, false);
+    }
+
+    /**
+     * Returns a lazy descending iterator over hi >= v >= lo using the
+     * tree's own ordering.
+     * @param lo the lower bound, or null for no lower bound.
+     * @param hi the upper bound, or null for no upper bound.
+     * @return an iterator over hi >= v >= lo.
+     * @throws IllegalStateException when the tree has no bound ordering.
+     */
+    public Iterator<T> descendingRange(T lo, T hi) throws IllegalStateException {
+        return descendingRange(lo, hi, boundOrder());
+    }
+
+    /**
+     * Returns a lazy iterator over the values between two bounds,
+     * both inclusive, in descending order.
+     * @param lo the lower bound, or null for no lower bound.
+     * @param hi the upper bound, or null for no upper bound.
+     * @param cmp the Comparator indicating how data in the tree is ordered.
+     * @return an iterator over hi >= v >= lo.
+     */
+    public Iterator<T> descendingRange(T lo, T hi, Comparator<T> cmp) {
+        checkOrder(cmp);
+        return new TreeIterator(lo, hi, cmp, true);
+    }
+
+    /**
+     * Returns a lazy ascending iterator over v <= hi using the tree's
+     * own ordering.
+     * @param hi the inclusive upper bound.
+     * @return an iterator over v <= hi.
+     * @throws IllegalStateException when the tree has no bound ordering.
+     */
+    public Iterator<T> headFrom(T hi) throws IllegalStateException {
+        return headFrom(hi, boundOrder());
+    }
+
+    /**
+     * Returns a lazy iterator over the head of the tree, that is
+     * the values from the smallest up to hi, in ascending order.
+     * @param hi the inclusive upper bound.
+     * @param cmp the Comparator indicating how data in the tree is ordered.
+     * @return an iterator over v <= hi.
+     */
+    public Iterator<T> headFrom(T hi, Comparator<T> cmp) {
+        checkOrder(cmp);
+        return new TreeIterator(null, hi, cmp, false);
+    }
+
+    /**
+     * Returns a lazy ascending iterator over v >= lo using the tree's
+     * own ordering.
+     * @param lo the inclusive lower bound.
+     * @return an iterator over v >= lo.
+     * @throws IllegalStateException when the tree has no bound ordering.
+     */
+    public Iterator<T> tailFrom(T lo) throws IllegalStateException {
+        return tailFrom(lo, boundOrder());
+    }
+
+    /**
+     * Returns a lazy iterator over the tail of the tree, that is
+     * the values from lo up to the largest, in ascending order.
+     * @param lo the inclusive lower bound.
+     * @param cmp the Comparator indicating how data in the tree is ordered.
+     * @return an iterator over v >= lo.
+     */
+    public Iterator<T> tailFrom(T lo, Comparator<T> cmp) {
+        checkOrder(cmp);
+        return new TreeIterator(lo, null, cmp, false);
+    }
+
+    /**
+     * Returns a Spliterator over the data in ascending order.
+     * It splits on subtrees, so parallel streams divide the tree
+     * into exactly sized halves without walking it first.
+     * @return a sized, ordered, splittable Spliterator.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new TreeSpliterator(null, false, root);
+    }
+
+    /**
+     * Returns a sequential Stream over the data in ascending order.
+     * @return a Stream of the data.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel Stream over the data in ascending order.
+     * @return a parallel Stream of the data.
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Sums a numeric property over all data, in parallel.
+     * @param property the property to sum, e.g. the value of an account.
+     * @return the sum of the property over the tree.
+     */
+    public double sumOf(ToDoubleFunction<? super T> property) {
+        return parallelStream().mapToDouble(property).sum();
+    }
+
+    /**
+     * Counts the data matching a condition, in parallel.
+     * @param condition the condition to test.
+     * @return the number of values for which the condition holds.
+     */
+    public long count(Predicate<? super T> condition) {
+        return parallelStream().filter(condition).count();
+    }
+
+    /**
+     * Spliterator over an optional leading value followed by an untouched
+     * subtree. Splitting hands off the leading value and the left subtree,
+     * keeping the subtree root and its right subtree, so both halves know
+     * their exact size from the cached subtree sizes. Once traversal has
+     * started it walks the subtree with a stack and no longer splits.
+     */
+    private class TreeSpliterator implements Spliterator<T> {
+        private T head;
+        private boolean hasHead;
+        private Node subtree;
+        private Node[] stack;
+        private int top;
+        private final int expectedModCount;
+
+        public TreeSpliterator(T head, boolean hasHead, Node subtree) {
+            this.head = head;
+            this.hasHead = hasHead;
+            this.subtree = subtree;
+            this.stack = null;
+            this.top = 0;
+            this.expectedModCount = modCount;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (stack != null || subtree == null) {
+                return null;
+            }
+            if (!hasHead && subtree.left == null) {
+                return null; // Nothing to hand off
+            }
+            TreeSpliterator prefix = new TreeSpliterator(head, hasHead, subtree.left);
+            head = subtree.data;
+            hasHead = true;
+            subtree = subtree.right;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException("Tree was modified.");
+            }
+            if (hasHead) {
+                T data = head;
+                head = null;
+                hasHead = false;
+                action.accept(data);
+                return true;
+            }
+            if (stack == null) {
+                stack = newPath(getHeight(subtree) + 1);
+                pushLeftSpine(subtree);
+                subtree = null;
+            }
+            if (top == 0) {
+                return false;
+            }
+            Node node = stack[--top];
+            pushLeftSpine(node.right);
+            action.accept(node.data);
+            return true;
+        }
+
+        /**
+         * Pushes a node and all of its left descendants.
+         * @param node the node at which to start.
+         */
+        private void pushLeftSpine(Node node) {
+            while (node != null) {
+                stack[top++] = node;
+                node = node.left;
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            long size = hasHead ? 1 : 0;
+            if (stack == null) {
+                return size + getSize(subtree);
+            }
+            for (int i = 0; i < top; i++) {
+                size += 1 + getSize(stack[i].right);
+            }
+            return size;
+        }
+
+        @Override
+        public int characteristics() {
+            int characteristics = Spliterator.ORDERED | Spliterator.DISTINCT
+                | Spliterator.NONNULL | Spliterator.SIZED | Spliterator.SUBSIZED;
+            return (order == null) ? characteristics : characteristics | Spliterator.SORTED;
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() throws IllegalStateException {
+            if (order == null) {
+                throw new IllegalStateException("Tree has no bound ordering.");
+            }
+            return order;
+        }
+    }
+
+    /**
+     * Iterator that walks the tree in order with an explicit stack,
+     * pushing only the nodes on the path to the next value.
+     */
+    private class TreeIterator implements Iterator<T> {
+        private final Node[] stack;
+        private int top;
+        private final T lo;
+        private final T hi;
+        private final Comparator<T> cmp;
+        private final boolean descending;
+        private final int expectedModCount;
+
+        public TreeIterator(T lo, T hi, Comparator<T> cmp, boolean descending) {
+            this.stack = newPath(getHeight(root) + 1);
+            this.top = 0;
+            this.lo = lo;
+            this.hi = hi;
+            this.cmp = cmp;
+            this.descending = descending;
+            this.expectedModCount = modCount;
+
+            // Push the path to the first value inside the starting bound
+            Node node = root;
+            while (node != null) {
+                if (descending) {
+                    if (hi != null && cmp.compare(node.data, hi) > 0) {
+                        node = node.left;
+                    } else {
+                        stack[top++] = node;
+                        node = node.right;
+                    }
+                } else {
+                    if (lo != null && cmp.compare(node.data, lo) < 0) {
+                        node = node.right;
+                    } else {
+                        stack[top++] = node;
+                        node = node.left;
+                    }
+                }
+            }
+            checkEndBound();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return top > 0;
+        }
+
+        @Override
+        public T next() throws NoSuchElementException {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException("Tree was modified.");
+            }
+            if (top == 0) {
+                throw new NoSuchElementException("No more values.");
+            }
+            Node node = stack[--top];
+            Node child = descending ? node.left : node.right;
+            while (child != null) {
+                stack[top++] = child;
+                child = descending ? child.right : child.left;
+            }
+            checkEndBound();
+            return node.data;
+        }
+
+        /**
+         * Ends the iteration once the next value passes the end bound.
+         */
+        private void checkEndBound() {
+            if (top == 0) {
+                return;
+            }
+            T next = stack[top - 1].data;
+            if (descending ? (lo != null && cmp.compare(next, lo) < 0)
+                    : (hi != null && cmp.compare(next, hi) > 0)) {
+                top = 0;
+            }
+        }
+    }
+
     /***ADDITONAL OPERATIONS***/
 
+    /**
+     * Merges this tree with another one into a new tree of minimal
+     * height in O(n + m), by walking both in order at once. When both
+     * trees hold an equal value, the one from this tree is kept.
+     * @param other the tree to merge with.
+     * @param cmp the Comparator indicating how data in both trees is ordered.
+     * @return a new tree with the ordering and mode of this tree.
+     * @postcondition this and other are unchanged.
+     */
+    @SuppressWarnings("unchecked")
+    public BST<T> union(BST<T> other, Comparator<T> cmp) {
+        checkOrder(cmp);
+        int otherSize = (other == null) ? 0 : other.getSize();
+        T[] merged = (T[]) new Object[getSize() + otherSize];
+        int count = 0;
+        Iterator<T> mine = iterator();
+        Iterator<T> theirs = (other == null) ? new BST<T>().iterator() : other.iterator();
+        T a = mine.hasNext() ? mine.next() : null;
+        T b = theirs.hasNext() ? theirs.next() : null;
+        while (a != null || b != null) {
+            int comparison = (a == null) ? 1 : (b == null) ? -1 : cmp.compare(a, b);
+            if (comparison <= 0) {
+                merged[count++] = a;
+                if (comparison == 0) {
+                    b = theirs.hasNext() ? theirs.next() : null;
+                }
+                a = mine.hasNext() ? mine.next() : null;
+            } else {
+                merged[count++] = b;
+                b = theirs.hasNext() ? theirs.next() : null;
+            }
+        }
+        BST<T> result = new BST<>(order, balanced);
+        result.root = result.arrayHelper(0, count - 1, merged);
+        return result;
+    }
+
+    /**
+     * Merges this tree with another one using the tree's own ordering.
+     * @param other the tree to merge with.
+     * @return a new tree with the ordering and mode of this tree.
+     * @throws IllegalStateException when the tree has no bound ordering.
+     */
+    public BST<T> union(BST<T> other) throws IllegalStateException {
+        return union(other, boundOrder());
+    }
+
     /**
      * Returns a String containing the data in pre order
      * followed by a new line.
@@ -338,22 +1244,22 @@ public class BST<T> {
      */
     public String preOrderString() {
         StringBuilder preOrder = new StringBuilder();
-        preOrderString(root, preOrder);
-        return preOrder.toString() + "\n";
-    }
-
-    /**
-     * Helper method to preOrderString method.
-     * Prints the data in pre order to the console followed by a new line.
-     * @param node the current Node
-     * @param preOrder a StringBuilder containing the data
-     */
-    private void preOrderString(Node node, StringBuilder preOrder) {
-        if (node != null) {
+        Node[] stack = newPath(getHeight(root) + 2);
+        int top = 0;
+        if (root != null) {
+            stack[top++] = root;
+        }
+        while (top > 0) {
+            Node node = stack[--top];
             preOrder.append(node.data + " ");
-            preOrderString(node.left, preOrder);
-            preOrderString(node.right, preOrder);
+            if (node.right != null) {
+                stack[top++] = node.right;
+            }
+            if (node.left != null) {
+                stack[top++] = node.left;
+            }
         }
+        return preOrder.toString() + "\n";
     }
 
     /**
@@ -362,22 +1268,19 @@ public class BST<T> {
      */
     public String inOrderString() {
         StringBuilder inOrder = new StringBuilder();
-        inOrderString(root, inOrder);
-        return inOrder.toString(); 
-    }
-
-    /**
-     * Helper method to inOrderString.
-     * Inserts the data in order into a String in order.
-     * @param node the current Node
-     * @param inOrder a String containing the data
-     */
-    private void inOrderString(Node node, StringBuilder inOrder) {
-        if (node != null) {
-            inOrderString(node.left, inOrder);
-            inOrder.append(node.data + "\n"); 
-            inOrderString(node.right, inOrder);
+        Node[] stack = newPath(getHeight(root) + 1);
+        int top = 0;
+        Node node = root;
+        while (node != null || top > 0) {
+            while (node != null) {
+                stack[top++] = node;
+                node = node.left;
+            }
+            node = stack[--top];
+            inOrder.append(node.data + "\n");
+            node = node.right;
         }
+        return inOrder.toString();
     }
 
     /**
@@ -386,22 +1289,24 @@ public class BST<T> {
      */
     public String postOrderString() {
         StringBuilder postOrder = new StringBuilder();
-        postOrderString(root, postOrder);
-        return postOrder.toString() + "\n";
-    }
-
-    /**
-     * Helper method to postOrderString
-     * Inserts the data in post order into a String
-     * @param node the current Node
-     * @param postOrder a String containing the data
-     */
-    private void postOrderString(Node node, StringBuilder postOrder) {
-        if (node != null) {
-            postOrderString(node.left, postOrder);
-            postOrderString(node.right, postOrder);
-            postOrder.append(node.data + " ");
+        Node[] stack = newPath(getHeight(root) + 1);
+        int top = 0;
+        Node node = root;
+        Node lastVisited = null;
+        while (node != null || top > 0) {
+            while (node != null) {
+                stack[top++] = node;
+                node = node.left;
+            }
+            Node peek = stack[top - 1];
+            if (peek.right != null && peek.right != lastVisited) {
+                node = peek.right;
+            } else {
+                postOrder.append(peek.data + " ");
+                lastVisited = stack[--top];
+            }
         }
+        return postOrder.toString() + "\n";
     }
 
     /**
@@ -413,33 +1318,41 @@ public class BST<T> {
      * @return the level order traversal as a String
      */
     public String levelOrderString() {
-        Queue<Node> que = new Queue<>();
-        StringBuilder sb = new StringBuilder();
-        que.enqueue(root);
-        levelOrderString(que, sb);
-        return sb.toString() + "\n";
-    }
-
-    /**
-     * Helper method to levelOrderString.
-     * Inserts the data in level order into a String.
-     * @param que the Queue in which to store the data.
-     * @param heightTraverse a StringBuilder containing the data.
-     */
-    private void levelOrderString(Queue<Node> que, StringBuilder heightTraverse) {
-        if (!que.isEmpty()) {
+        ArrayQueue<Node> que = new ArrayQueue<>();
+        StringBuilder heightTraverse = new StringBuilder();
+        if (root != null) {
+            que.enqueue(root);
+        }
+        while (!que.isEmpty()) {
             Node nd = que.getFront();
             que.dequeue();
-            if (nd != null) {
+            heightTraverse.append(nd.data + " ");
+            if (nd.left != null) {
                 que.enqueue(nd.left);
+            }
+            if (nd.right != null) {
                 que.enqueue(nd.right);
-                heightTraverse.append(nd.data + " ");
             }
-            levelOrderString(que, heightTraverse);
         }
+        return heightTraverse.toString() + "\n";
     }
       /**Challenge Methods */
 
+    /**
+     * Returns the shared precursor of two values using the tree's own
+     * ordering.
+     * @param data1 the data contained in one Node of the tree.
+     * @param data2 the data contained in one Node of the tree.
+     * @return the data stored by the shared precursor.
+     * @precondition data1 and data2 must exist in the BST.
+     * @throws IllegalArgumentException when one or both values do not exist
+     * in the BST.
+     * @throws IllegalStateException when the tree has no bound ordering.
+     */
+    public T sharedPrecursor(T data1, T data2) throws IllegalArgumentException, IllegalStateException {
+        return sharedPrecursor(data1, data2, boundOrder());
+    }
+
     /**
      * Returns the data of the Node who is the shared precursor to the two
      * Nodes containing the given data. If either data1 or data2 is a
@@ -455,51 +1368,324 @@ public class BST<T> {
      * in the BST.
      */
     public T sharedPrecursor(T data1, T data2, Comparator<T> cmp) throws IllegalArgumentException {
-        if (root == null || search(data1, cmp) == null || search(data2, cmp) == null) {
+        checkOrder(cmp);
+        Node split = splitNode(data1, data2, cmp);
+        if (split == null || findFrom(split, data1, cmp) == null
+                || findFrom(split, data2, cmp) == null) {
             throw new IllegalArgumentException("One or both values do not exist in the BST");
         }
-        return sharedPrecursor(data1, data2, root, cmp);
+        return split.data;
     }
 
     /**
-     * Private helper method to sharedPrecursor, which recursively locates
-     * the shared precursor.
+     * Private helper method to sharedPrecursor, which descends from the
+     * root while both values lie on the same side of the current node.
      * @param data1 the data contained in one Node of the tree.
      * @param data2 the data contained in one Node of the tree.
-     * @param currLevel the current Node.
      * @param cmp the comparator used to define the order of elements in the BST.
-     * @return the data stored by the shared precursor.
+     * @return the node where the values split, or null if the descent
+     * falls off the tree.
      */
-    private T sharedPrecursor(T data1, T data2, Node currLevel, Comparator<T> cmp) {
-        if (currLevel == null) {
-            return null;
+    private Node splitNode(T data1, T data2, Comparator<T> cmp) {
+        Node currLevel = root;
+        while (currLevel != null) {
+            int cmp1 = cmp.compare(data1, currLevel.data);
+            int cmp2 = cmp.compare(data2, currLevel.data);
+
+            if (cmp1 < 0 && cmp2 < 0) {
+                currLevel = currLevel.left; // Both values are smaller, go left
+            } else if (cmp1 > 0 && cmp2 > 0) {
+                currLevel = currLevel.right; // Both values are larger, go right
+            } else {
+                // The values split here, or the current node is one of them
+                return currLevel;
+            }
         }
-        
-        // If current node is one of the target values, it is the precursor
-        if (cmp.compare(currLevel.data, data1) == 0 || cmp.compare(currLevel.data, data2) == 0) {
-            return currLevel.data;
+        return null;
+    }
+
+    /**
+     * Continues a search from a node part way down the tree, so a query
+     * that has already found a common ancestor does not start over.
+     * @param node the node at which to continue.
+     * @param data the data to search for.
+     * @param cmp the comparator used to define the order of elements in the BST.
+     * @return the node containing data, or null if it is not below node.
+     */
+    private Node findFrom(Node node, T data, Comparator<T> cmp) {
+        while (node != null) {
+            int comparison = cmp.compare(data, node.data);
+            if (comparison == 0) {
+                return node;
+            }
+            node = (comparison < 0) ? node.left : node.right;
         }
-        
-        int cmp1 = cmp.compare(data1, currLevel.data);
-        int cmp2 = cmp.compare(data2, currLevel.data);
-        
-        // If the values are on different sides of current node, current node is the precursor
-        if ((cmp1 < 0 && cmp2 > 0) || (cmp1 > 0 && cmp2 < 0)) {
-            return currLevel.data;
+        return null;
+    }
+
+    /***NEIGHBOR AND PATH QUERIES***/
+
+    /**
+     * Returns the depth of a value using the tree's own ordering.
+     * @param data the value whose depth to find.
+     * @return the number of edges from the root to the value, or -1 if
+     * the value is not in the tree.
+     * @throws IllegalStateException when the tree has no bound ordering.
+     */
+    public int depth(T data) throws IllegalStateException {
+        return depth(data, boundOrder());
+    }
+
+    /**
+     * Returns the depth of a value, counted in edges from the root.
+     * @param data the value whose depth to find.
+     * @param cmp the Comparator indicating how data in the tree is ordered.
+     * @return the number of edges from the root to the value, or -1 if
+     * the value is not in the tree.
+     */
+    public int depth(T data, Comparator<T> cmp) {
+        checkOrder(cmp);
+        int depth = 0;
+        Node node = root;
+        while (node != null) {
+            int comparison = cmp.compare(data, node.data);
+            if (comparison == 0) {
+                return depth;
+            }
+            node = (comparison < 0) ? node.left : node.right;
+            depth++;
         }
-        
-        // Both values are less than current node, go left
-        if (cmp1 < 0 && cmp2 < 0) {
-            return sharedPrecursor(data1, data2, currLevel.left, cmp);
+        return -1;
+    }
+
+    /**
+     * Returns the path between two values using the tree's own ordering.
+     * @param data1 the value at which the path starts.
+     * @param data2 the value at which the path ends.
+     * @return the values on the path, from data1 to data2.
+     * @throws IllegalArgumentException when one or both values do not exist
+     * in the BST.
+     * @throws IllegalStateException when the tree has no bound ordering.
+     */
+    public LinkedList<T> path(T data1, T data2) throws IllegalArgumentException, IllegalStateException {
+        return path(data1, data2, boundOrder());
+    }
+
+    /**
+     * Returns the values on the path between two values, going up from
+     * data1 to their shared precursor and then down to data2. Both halves
+     * of the path are collected while descending from the shared
+     * precursor, so the tree is walked once.
+     * @param data1 the value at which the path starts.
+     * @param data2 the value at which the path ends.
+     * @param cmp the Comparator indicating how data in the tree is ordered.
+     * @return the values on the path, from data1 to data2.
+     * @precondition data1 and data2 must exist in the BST.
+     * @throws IllegalArgumentException when one or both values do not exist
+     * in the BST.
+     */
+    public LinkedList<T> path(T data1, T data2, Comparator<T> cmp) throws IllegalArgumentException {
+        checkOrder(cmp);
+        Node split = splitNode(data1, data2, cmp);
+        LinkedList<T> result = new LinkedList<>();
+        if (split == null || !collectPath(split, data1, cmp, result, true)) {
+            throw new IllegalArgumentException("One or both values do not exist in the BST");
         }
-        
-        // Both values are greater than current node, go right
-        if (cmp1 > 0 && cmp2 > 0) {
-            return sharedPrecursor(data1, data2, currLevel.right, cmp);
+        result.addLast(split.data);
+        if (!collectPath(split, data2, cmp, result, false)) {
+            throw new IllegalArgumentException("One or both values do not exist in the BST");
         }
-        
-        // If we reach here (shouldn't happen based on the above conditions), return current node's data
-        return currLevel.data;
+        return result;
     }
 
+    /**
+     * Helper method to path, which adds the values below a node on the
+     * way down to the given value.
+     * @param node the node at which to start, which is not added.
+     * @param data the value at which to stop, which is added.
+     * @param cmp the Comparator indicating how data in the tree is ordered.
+     * @param result the list to add the values to.
+     * @param upward whether to add each value to the front, so the list
+     * reads from data up towards node.
+     * @return whether data was found below node.
+     */
+    private boolean collectPath(Node node, T data, Comparator<T> cmp,
+            LinkedList<T> result, boolean upward) {
+        int comparison = cmp.compare(data, node.data);
+        while (comparison != 0) {
+            node = (comparison < 0) ? node.left : node.right;
+            if (node == null) {
+                return false;
+            }
+            if (upward) {
+                result.addFirst(node.data);
+            } else {
+                result.addLast(node.data);
+            }
+            comparison = cmp.compare(data, node.data);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the largest value less than or equal to data using the
+     * tree's own ordering.
+     * @param data the value to look up, which need not be in the tree.
+     * @return the floor of data, or null if there is none.
+     * @throws IllegalStateException when the tree has no bound ordering.
+     */
+    public T floor(T data) throws IllegalStateException {
+        return floor(data, boundOrder());
+    }
+
+    /**
+     * Returns the largest value less than or equal to data.
+     * @param data the value to look up, which need not be in the tree.
+     * @param cmp the Comparator indicating how data in the tree is ordered.
+     * @return the floor of data, or null if there is none.
+     */
+    public T floor(T data, Comparator<T> cmp) {
+        checkOrder(cmp);
+        return neighbor(data, true, true, cmp);
+    }
+
+    /**
+     * Returns the smallest value greater than or equal to data using the
+     * tree's own ordering.
+     * @param data the value to look up, which need not be in the tree.
+     * @return the ceiling of data, or null if there is none.
+     * @throws IllegalStateException when the tree has no bound ordering.
+     */
+    public T ceiling(T data) throws IllegalStateException {
+        return ceiling(data, boundOrder());
+    }
+
+    /**
+     * Returns the smallest value greater than or equal to data.
+     * @param data the value to look up, which need not be in the tree.
+     * @param cmp the Comparator indicating how data in the tree is ordered.
+     * @return the ceiling of data, or null if there is none.
+     */
+    public T ceiling(T data, Comparator<T> cmp) {
+        checkOrder(cmp);
+        return neighbor(data, false, true, cmp);
+    }
+
+    /**
+     * Returns the largest value strictly less than data using the
+     * tree's own ordering.
+     * @param data the value to look up, which need not be in the tree.
+     * @return the predecessor of data, or null if there is none.
+     * @throws IllegalStateException when the tree has no bound ordering.
+     */
+    public T predecessor(T data) throws IllegalStateException {
+        return predecessor(data, boundOrder());
+    }
+
+    /**
+     * Returns the largest value strictly less than data.
+     * @param data the value to look up, which need not be in the tree.
+     * @param cmp the Comparator indicating how data in the tree is ordered.
+     * @return the predecessor of data, or null if there is none.
+     */
+    public T predecessor(T data, Comparator<T> cmp) {
+        checkOrder(cmp);
+        return neighbor(data, true, false, cmp);
+    }
+
+    /**
+     * Returns the smallest value strictly greater than data using the
+     * tree's own ordering.
+     * @param data the value to look up, which need not be in the tree.
+     * @return the successor of data, or null if there is none.
+     * @throws IllegalStateException when the tree has no bound ordering.
+     */
+    public T successor(T data) throws IllegalStateException {
+        return successor(data, boundOrder());
+    }
+
+    /**
+     * Returns the smallest value strictly greater than data.
+     * @param data the value to look up, which need not be in the tree.
+     * @param cmp the Comparator indicating how data in the tree is ordered.
+     * @return the successor of data, or null if there is none.
+     */
+    public T successor(T data, Comparator<T> cmp) {
+        checkOrder(cmp);
+        return neighbor(data, false, false, cmp);
+    }
+
+    /**
+     * Helper method for floor, ceiling, predecessor and successor, which
+     * remembers the last node passed on the wanted side in one descent.
+     * @param data the value to look up.
+     * @param below whether to look for a smaller rather than larger value.
+     * @param inclusive whether a value equal to data qualifies.
+     * @param cmp the Comparator indicating how data in the tree is ordered.
+     * @return the neighboring value, or null if there is none.
+     */
+    private T neighbor(T data, boolean below, boolean inclusive, Comparator<T> cmp) {
+        T result = null;
+        Node node = root;
+        while (node != null) {
+            int comparison = cmp.compare(data, node.data);
+            if (comparison == 0 && inclusive) {
+                return node.data;
+            }
+            if (below ? comparison > 0 : comparison < 0) {
+                result = node.data;
+                node = below ? node.right : node.left;
+            } else {
+                node = below ? node.left : node.right;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the value nearest to data using the tree's own ordering.
+     * @param data the value to look up, which need not be in the tree.
+     * @param key the numeric key the tree is ordered by.
+     * @return the nearest value, or null if the tree is empty.
+     * @throws IllegalStateException when the tree has no bound ordering.
+     */
+    public T closest(T data, ToDoubleFunction<? super T> key) throws IllegalStateException {
+        return closest(data, key, boundOrder());
+    }
+
+    /**
+     * Returns the value nearest to data, e.g. the holding whose value is
+     * closest to $5,000 in a tree ordered by value. The floor and the
+     * ceiling of data are found in the same descent, and the one whose
+     * key is nearer wins, with ties going to the floor.
+     * @param data the value to look up, which need not be in the tree.
+     * @param key the numeric key the tree is ordered by.
+     * @param cmp the Comparator indicating how data in the tree is ordered.
+     * @return the nearest value, or null if the tree is empty.
+     */
+    public T closest(T data, ToDoubleFunction<? super T> key, Comparator<T> cmp) {
+        checkOrder(cmp);
+        T lower = null;
+        T upper = null;
+        Node node = root;
+        while (node != null) {
+            int comparison = cmp.compare(data, node.data);
+            if (comparison == 0) {
+                return node.data;
+            } else if (comparison < 0) {
+                upper = node.data;
+                node = node.left;
+            } else {
+                lower = node.data;
+                node = node.right;
+            }
+        }
+        if (lower == null || upper == null) {
+            return (lower == null) ? upper : lower;
+        }
+        double target = key.applyAsDouble(data);
+        double below = target - key.applyAsDouble(lower);
+        double above = key.applyAsDouble(upper) - target;
+        return (above < below) ? upper : lower;
+    }
 }
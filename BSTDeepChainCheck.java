@@ -0,0 +1,92 @@
+/**
+ * BSTDeepChainCheck.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 3
+ */
+import java.util.Iterator;
+
+/**
+ * Checks that BST operations do not recurse on the depth of the tree.
+ * It builds an unbalanced chain of 5 million nodes, far deeper than the
+ * default thread stack can follow recursively, and runs each operation
+ * on it. A StackOverflowError or a wrong answer fails the check with
+ * exit status 1.
+ *
+ * Run with: java -Xmx2g BSTDeepChainCheck [nodes]
+ */
+public class BSTDeepChainCheck {
+    private static int failures = 0;
+
+    /**
+     * Runs the check.
+     * @param args optionally, the number of nodes; 5,000,000 by default.
+     */
+    public static void main(String[] args) {
+        int n = (args.length > 0) ? Integer.parseInt(args[0]) : 5_000_000;
+        BST<Integer> chain = BST.chain(n);
+        System.out.printf("Chain of %d nodes, height %d%n", chain.getSize(), chain.getHeight());
+
+        check("search", () -> chain.search(n - 1) == n - 1 && chain.search(n) == null);
+        check("findMin/findMax", () -> chain.findMin() == 0 && chain.findMax() == n - 1);
+        check("insert", () -> {
+            chain.insert(n);
+            return chain.getSize() == n + 1 && chain.findMax() == n;
+        });
+        check("remove", () -> {
+            chain.remove(n);
+            chain.remove(n - 1);
+            return chain.getSize() == n - 1 && chain.findMax() == n - 2;
+        });
+        check("copy", () -> {
+            BST<Integer> copy = new BST<>(chain, chain.getOrder());
+            return copy.getSize() == n - 1 && copy.search(n - 2) != null;
+        });
+        check("iterator", () -> {
+            Iterator<Integer> values = chain.iterator();
+            int expected = 0;
+            while (values.hasNext()) {
+                if (values.next() != expected++) {
+                    return false;
+                }
+            }
+            return expected == n - 1;
+        });
+        check("inOrderString", () -> chain.inOrderString().endsWith((n - 2) + "\n"));
+        check("preOrderString", () -> chain.preOrderString().endsWith(" " + (n - 2) + " \n"));
+        check("postOrderString", () -> chain.postOrderString().startsWith((n - 2) + " "));
+        check("levelOrderString", () -> chain.levelOrderString().endsWith(" " + (n - 2) + " \n"));
+        check("sharedPrecursor", () -> chain.sharedPrecursor(n - 3, n - 2) == n - 3);
+
+        if (failures > 0) {
+            System.out.println("FAILED: " + failures);
+            System.exit(1);
+        }
+        System.out.println("OK");
+    }
+
+    /**
+     * A check that reports whether it passed.
+     */
+    private interface Check {
+        boolean passes();
+    }
+
+    /**
+     * Runs one check, printing whether it passed and how long it took.
+     * @param name what is checked.
+     * @param check the check to run.
+     */
+    private static void check(String name, Check check) {
+        long start = System.nanoTime();
+        String result;
+        try {
+            result = check.passes() ? "ok" : "WRONG";
+        } catch (StackOverflowError e) {
+            result = "STACK OVERFLOW";
+        }
+        System.out.printf("  %-18s %-14s %.0f ms%n", name, result, (System.nanoTime() - start) / 1e6);
+        if (!result.equals("ok")) {
+            failures++;
+        }
+    }
+}
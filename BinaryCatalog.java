@@ -0,0 +1,381 @@
+/**
+ * BinaryCatalog.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 3
+ */
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A read-only catalog backed by a memory-mapped binary file. Opening one
+ * only maps the file and checks its header, so it takes the same time
+ * for any number of funds. A MutualFund is built from the file the first
+ * time its position is requested and is reused afterwards.
+ *
+ * The file is big-endian and laid out in sections, in this order:
+ *
+ * header         magic "MFCT", version, fund count, and the start of
+ *                each section below, as eight ints
+ * prices         one double per fund, in menu order
+ * string offsets 2 * count + 1 ints; string i is the bytes from
+ *                offset i to offset i + 1 of the string data, and fund
+ *                k's name and ticker are strings 2k and 2k + 1
+ * ticker index   fund positions sorted by normalized ticker
+ * name index     fund positions sorted by normalized name
+ * string data    the names and tickers in UTF-8
+ *
+ * Lookups binary search an index, reading O(log n) strings.
+ */
+public class BinaryCatalog implements Catalog {
+    /** The first four bytes of every catalog file: "MFCT". */
+    public static final int MAGIC = 0x4D464354;
+    /** The format version this class reads and writes. */
+    public static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8 * Integer.BYTES;
+
+    private final ByteBuffer bytes;
+    private final int count;
+    private final int offsetsStart;
+    private final int tickerIndexStart;
+    private final int nameIndexStart;
+    private final int dataStart;
+    private final int dataLength;
+    private final AtomicReferenceArray<MutualFund> funds;
+
+    /****CONSTRUCTORS****/
+
+    /**
+     * Wraps a mapped catalog file whose header has been checked.
+     * @param bytes the mapped file.
+     * @param count the number of funds.
+     */
+    private BinaryCatalog(ByteBuffer bytes, int count) {
+        this.bytes = bytes;
+        this.count = count;
+        this.offsetsStart = bytes.getInt(3 * Integer.BYTES);
+        this.tickerIndexStart = bytes.getInt(4 * Integer.BYTES);
+        this.nameIndexStart = bytes.getInt(5 * Integer.BYTES);
+        this.dataStart = bytes.getInt(6 * Integer.BYTES);
+        this.dataLength = bytes.getInt(7 * Integer.BYTES);
+        this.funds = new AtomicReferenceArray<>(count);
+    }
+
+    /**
+     * Opens a catalog file without reading its funds.
+     * @param file the catalog file.
+     * @return the catalog.
+     * @throws FileNotFoundException when the file does not exist.
+     * @throws IOException when the file cannot be read.
+     * @throws IllegalArgumentException when the file is not a catalog,
+     * has another version, or its sections do not fit the file.
+     */
+    public static BinaryCatalog open(Path file) throws IOException, IllegalArgumentException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Not a fund catalog: " + file);
+            }
+            ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (bytes.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException("Not a fund catalog: " + file);
+            }
+            if (bytes.getInt(Integer.BYTES) != VERSION) {
+                throw new IllegalArgumentException("Unsupported catalog version "
+                    + bytes.getInt(Integer.BYTES) + ": " + file);
+            }
+            int count = bytes.getInt(2 * Integer.BYTES);
+            if (count < 0) {
+                throw new IllegalArgumentException("Corrupt catalog header: " + file);
+            }
+            long[] layout = layout(count);
+            for (int i = 0; i < layout.length; i++) {
+                if (bytes.getInt((3 + i) * Integer.BYTES) != layout[i]) {
+                    throw new IllegalArgumentException("Corrupt catalog header: " + file);
+                }
+            }
+            if (layout[3] + bytes.getInt(7 * Integer.BYTES) != size) {
+                throw new IllegalArgumentException("Corrupt catalog header: " + file);
+            }
+            return new BinaryCatalog(bytes, count);
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException(file.toString());
+        }
+    }
+
+    /****ACCESSORS****/
+
+    /**
+     * Returns the number of funds in the catalog.
+     * @return the number of funds.
+     */
+    @Override
+    public int getLength() {
+        return count;
+    }
+
+    /**
+     * Returns the catalog's version; a binary catalog never changes.
+     * @return always 0.
+     */
+    @Override
+    public int getVersion() {
+        return 0;
+    }
+
+    /**
+     * Determines whether the catalog is empty.
+     * @return whether there are no funds.
+     */
+    @Override
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Returns the fund at a menu position, building it from the file on
+     * first use. Every call for a position returns the same fund.
+     * @param index the position, from 0 to getLength() - 1.
+     * @return the fund at that position.
+     * @throws IndexOutOfBoundsException when the index is out of bounds.
+     */
+    @Override
+    public MutualFund get(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("get(): Index out of bounds: " + index);
+        }
+        MutualFund fund = funds.get(index);
+        if (fund == null) {
+            MutualFund built = new MutualFund(string(2 * index), string(2 * index + 1),
+                bytes.getDouble(HEADER_BYTES + index * Double.BYTES));
+            // Another thread may have built it first; keep the one stored
+            fund = funds.compareAndSet(index, null, built) ? built : funds.get(index);
+        }
+        return fund;
+    }
+
+    /**
+     * Looks up a fund by ticker symbol, ignoring case and surrounding
+     * whitespace.
+     * @param ticker the ticker symbol.
+     * @return the fund, or null if no fund has that ticker.
+     */
+    @Override
+    public MutualFund findByTicker(String ticker) {
+        if (ticker == null) {
+            return null;
+        }
+        return search(tickerIndexStart, FundCatalog.normalizeTicker(ticker),
+            i -> FundCatalog.normalizeTicker(string(2 * i + 1)));
+    }
+
+    /**
+     * Looks up a fund by name, ignoring case and differences in spacing.
+     * @param name the fund name.
+     * @return the fund, or null if no fund has that name.
+     */
+    @Override
+    public MutualFund findByName(String name) {
+        if (name == null) {
+            return null;
+        }
+        return search(nameIndexStart, FundCatalog.normalizeName(name),
+            i -> FundCatalog.normalizeName(string(2 * i)));
+    }
+
+    /**
+     * Looks up a fund by ticker, falling back to its name.
+     * @param query a ticker symbol or a fund name.
+     * @return the fund, or null if none matches.
+     */
+    @Override
+    public MutualFund find(String query) {
+        MutualFund fund = findByTicker(query);
+        return (fund != null) ? fund : findByName(query);
+    }
+
+    /****ADDITIONAL OPERATIONS****/
+
+    /**
+     * Returns an iterator over the funds in menu order.
+     * @return an iterator over the funds.
+     */
+    @Override
+    public Iterator<MutualFund> iterator() {
+        return new Iterator<MutualFund>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < count;
+            }
+
+            @Override
+            public MutualFund next() throws NoSuchElementException {
+                if (next >= count) {
+                    throw new NoSuchElementException("next(): No more funds.");
+                }
+                return get(next++);
+            }
+        };
+    }
+
+    /**
+     * Returns a sequential Stream over the funds in menu order.
+     * @return a Stream of the funds.
+     */
+    @Override
+    public Stream<MutualFund> stream() {
+        return IntStream.range(0, count).mapToObj(this::get);
+    }
+
+    /**
+     * Writes a catalog in the binary format. The file is written beside
+     * the target and then moved over it, so a reader never sees a
+     * partly written catalog.
+     * @param catalog the funds to write, in menu order.
+     * @param file the catalog file to create or replace.
+     * @throws IOException when the file cannot be written.
+     * @throws IllegalArgumentException when the catalog would exceed 2 GB.
+     */
+    public static void write(Catalog catalog, Path file) throws IOException, IllegalArgumentException {
+        int count = catalog.getLength();
+        byte[][] strings = new byte[2 * count][];
+        String[] tickers = new String[count];
+        String[] names = new String[count];
+        long dataLength = 0;
+        for (int i = 0; i < count; i++) {
+            MutualFund fund = catalog.get(i);
+            strings[2 * i] = fund.getFundName().getBytes(StandardCharsets.UTF_8);
+            strings[2 * i + 1] = fund.getTicker().getBytes(StandardCharsets.UTF_8);
+            names[i] = FundCatalog.normalizeName(fund.getFundName());
+            tickers[i] = FundCatalog.normalizeTicker(fund.getTicker());
+            dataLength += strings[2 * i].length + strings[2 * i + 1].length;
+        }
+        long[] layout = layout(count);
+        if (layout[3] + dataLength > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Catalogs over 2 GB are not supported.");
+        }
+
+        ByteBuffer out = ByteBuffer.allocate((int) (layout[3] + dataLength));
+        out.putInt(MAGIC).putInt(VERSION).putInt(count);
+        for (long start : layout) {
+            out.putInt((int) start);
+        }
+        out.putInt((int) dataLength);
+        for (int i = 0; i < count; i++) {
+            out.putDouble(catalog.get(i).getPricePerShare());
+        }
+        int offset = 0;
+        for (byte[] string : strings) {
+            out.putInt(offset);
+            offset += string.length;
+        }
+        out.putInt(offset);
+        putIndex(out, tickers);
+        putIndex(out, names);
+        for (byte[] string : strings) {
+            out.put(string);
+        }
+        out.flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /****HELPERS****/
+
+    /**
+     * Computes where each section after the prices starts.
+     * @param count the number of funds.
+     * @return the starts of the string offsets, ticker index, name index
+     * and string data.
+     */
+    private static long[] layout(int count) {
+        long offsetsStart = HEADER_BYTES + (long) count * Double.BYTES;
+        long tickerIndexStart = offsetsStart + (2L * count + 1) * Integer.BYTES;
+        long nameIndexStart = tickerIndexStart + (long) count * Integer.BYTES;
+        long dataStart = nameIndexStart + (long) count * Integer.BYTES;
+        return new long[] {offsetsStart, tickerIndexStart, nameIndexStart, dataStart};
+    }
+
+    /**
+     * Writes the fund positions in ascending order of their keys.
+     * @param out the buffer to write to.
+     * @param keys the normalized key of each fund, by position.
+     */
+    private static void putIndex(ByteBuffer out, String[] keys) {
+        Integer[] order = new Integer[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(i -> keys[i]));
+        for (Integer position : order) {
+            out.putInt(position);
+        }
+    }
+
+    /**
+     * Binary searches an index for a key.
+     * @param indexStart the start of the index in the file.
+     * @param key the normalized key to find.
+     * @param keyOf computes the normalized key of a fund position.
+     * @return the fund with that key, or null if there is none.
+     */
+    private MutualFund search(int indexStart, String key, IntFunction<String> keyOf) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int position = bytes.getInt(indexStart + mid * Integer.BYTES);
+            int cmp = keyOf.apply(position).compareTo(key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return get(position);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Decodes a string from the string table.
+     * @param i the string's number.
+     * @return the string.
+     * @throws IllegalStateException when the string lies outside the data.
+     */
+    private String string(int i) throws IllegalStateException {
+        int from = bytes.getInt(offsetsStart + i * Integer.BYTES);
+        int to = bytes.getInt(offsetsStart + (i + 1) * Integer.BYTES);
+        if (from < 0 || from > to || to > dataLength) {
+            throw new IllegalStateException("Catalog file is corrupt.");
+        }
+        byte[] utf8 = new byte[to - from];
+        bytes.get(dataStart + from, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
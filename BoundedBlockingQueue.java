@@ -0,0 +1,574 @@
+/**
+ * BoundedBlockingQueue.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 3
+ */
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed-capacity Queue shared by producer and consumer threads. It is a
+ * circular array guarded by one lock, with one condition for "not empty"
+ * and one for "not full". When it is full, producers either wait, time
+ * out, or have the value handled by the queue's RejectionPolicy, so a
+ * lagging consumer slows producers down instead of letting the queue
+ * grow without bound. The queue records its depth, its peak depth, how
+ * long producers and consumers waited, and how many values were rejected
+ * or dropped.
+ * Null values are not allowed, since poll() uses null to mean empty.
+ * @param <T> the generic data stored in the Queue
+ */
+public class BoundedBlockingQueue<T> implements Q<T> {
+    /**
+     * What enqueue() does with a value when the Queue is full.
+     */
+    public enum RejectionPolicy {
+        /** Wait until a consumer makes room. */
+        BLOCK,
+        /** Throw IllegalStateException. */
+        REJECT,
+        /** Discard the new value. */
+        DROP_NEWEST,
+        /** Discard the front value to make room for the new one. */
+        DROP_OLDEST
+    }
+
+    private final Object[] items;
+    private int front;
+    private int size;
+    private final RejectionPolicy policy;
+    private final ReentrantLock lock;
+    private final Condition notEmpty;
+    private final Condition notFull;
+
+    private int peakSize;
+    private long rejectedCount;
+    private long droppedCount;
+    private long producerWaitNanos;
+    private long consumerWaitNanos;
+
+    /****CONSTRUCTORS****/
+
+    /**
+     * Creates an empty queue whose producers wait when it is full.
+     * @param capacity the largest number of values held at once.
+     * @throws IllegalArgumentException when capacity < 1
+     */
+    public BoundedBlockingQueue(int capacity) throws IllegalArgumentException {
+        this(capacity, RejectionPolicy.BLOCK);
+    }
+
+    /**
+     * Creates an empty queue with a policy for enqueue() when full.
+     * @param capacity the largest number of values held at once.
+     * @param policy what enqueue() does when the Queue is full.
+     * @throws IllegalArgumentException when capacity < 1
+     * @throws NullPointerException when policy is null
+     */
+    public BoundedBlockingQueue(int capacity, RejectionPolicy policy)
+            throws IllegalArgumentException, NullPointerException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        if (policy == null) {
+            throw new NullPointerException("Rejection policy cannot be null.");
+        }
+        this.items = new Object[capacity];
+        this.front = 0;
+        this.size = 0;
+        this.policy = policy;
+        this.lock = new ReentrantLock();
+        this.notEmpty = lock.newCondition();
+        this.notFull = lock.newCondition();
+    }
+
+    /****ACCESSORS****/
+
+    /**
+     * Returns the value stored at the front of the Queue when called.
+     * Another thread may dequeue it right after, so consumers should
+     * use poll() or take() instead of getFront() followed by dequeue().
+     * @return the value at the front of the queue
+     * @precondition !isEmpty()
+     * @throws NoSuchElementException when the
+     * precondition is violated
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getFront() throws NoSuchElementException {
+        lock.lock();
+        try {
+            if (size == 0) {
+                throw new NoSuchElementException("getFront(): Queue is empty!");
+            }
+            return (T) items[front];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the size of the Queue, i.e. its current depth
+     * @return the size from 0 to capacity
+     */
+    @Override
+    public int getSize() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Determines whether a Queue is empty
+     * @return whether the Queue contains no elements
+     */
+    @Override
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+    /**
+     * Returns the largest number of values held at once.
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return items.length;
+    }
+
+    /**
+     * Returns what enqueue() does when the Queue is full.
+     * @return the rejection policy
+     */
+    public RejectionPolicy getPolicy() {
+        return policy;
+    }
+
+    /****MUTATORS****/
+
+    /**
+     * Inserts a new value at the end of the Queue, applying the
+     * rejection policy when the Queue is full
+     * @param data the new data to insert
+     * @postcondition the value is at the end of the Queue, unless the
+     * policy dropped it
+     * @throws NullPointerException when data is null
+     * @throws IllegalStateException when the Queue is full and the policy
+     * is REJECT, or the thread is interrupted while waiting under BLOCK
+     */
+    @Override
+    public void enqueue(T data) throws NullPointerException, IllegalStateException {
+        checkNotNull(data);
+        if (policy == RejectionPolicy.BLOCK) {
+            try {
+                put(data);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("enqueue(): interrupted while waiting!", e);
+            }
+            return;
+        }
+        lock.lock();
+        try {
+            if (size == items.length) {
+                switch (policy) {
+                    case REJECT:
+                        rejectedCount++;
+                        throw new IllegalStateException("enqueue(): Queue is full!");
+                    case DROP_NEWEST:
+                        droppedCount++;
+                        return;
+                    default: // DROP_OLDEST
+                        droppedCount++;
+                        removeFront();
+                        break;
+                }
+            }
+            insert(data);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts a value, waiting as long as needed for room
+     * @param data the new data to insert
+     * @throws NullPointerException when data is null
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public void put(T data) throws NullPointerException, InterruptedException {
+        checkNotNull(data);
+        lock.lockInterruptibly();
+        try {
+            if (size == items.length) {
+                long start = System.nanoTime();
+                try {
+                    while (size == items.length) {
+                        notFull.await();
+                    }
+                } finally {
+                    producerWaitNanos += System.nanoTime() - start;
+                }
+            }
+            insert(data);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts a value if there is room, without waiting
+     * @param data the new data to insert
+     * @return whether the value was inserted
+     * @throws NullPointerException when data is null
+     */
+    public boolean offer(T data) throws NullPointerException {
+        checkNotNull(data);
+        lock.lock();
+        try {
+            if (size == items.length) {
+                rejectedCount++;
+                return false;
+            }
+            insert(data);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts a value, waiting up to a timeout for room
+     * @param data the new data to insert
+     * @param timeout how long to wait
+     * @param unit the unit of timeout
+     * @return whether the value was inserted before the timeout
+     * @throws NullPointerException when data is null
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public boolean offer(T data, long timeout, TimeUnit unit)
+            throws NullPointerException, InterruptedException {
+        checkNotNull(data);
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            if (size == items.length) {
+                long start = System.nanoTime();
+                try {
+                    while (size == items.length) {
+                        if (remaining <= 0) {
+                            rejectedCount++;
+                            return false;
+                        }
+                        remaining = notFull.awaitNanos(remaining);
+                    }
+                } finally {
+                    producerWaitNanos += System.nanoTime() - start;
+                }
+            }
+            insert(data);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the front element in the Queue
+     * @precondition !isEmpty()
+     * @throws NoSuchElementException when
+     * the precondition is violated
+     * @postcondition the front element has been removed
+     */
+    @Override
+    public void dequeue() throws NoSuchElementException {
+        if (poll() == null) {
+            throw new NoSuchElementException("dequeue(): Queue is empty!");
+        }
+    }
+
+    /**
+     * Removes and returns the front value, without waiting
+     * @return the value that was at the front, or null if the Queue
+     * was empty
+     */
+    public T poll() {
+        lock.lock();
+        try {
+            return (size == 0) ? null : removeFront();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the front value, waiting up to a timeout for
+     * one to arrive
+     * @param timeout how long to wait
+     * @param unit the unit of timeout
+     * @return the value that was at the front, or null on timeout
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            if (size == 0) {
+                long start = System.nanoTime();
+                try {
+                    while (size == 0) {
+                        if (remaining <= 0) {
+                            return null;
+                        }
+                        remaining = notEmpty.awaitNanos(remaining);
+                    }
+                } finally {
+                    consumerWaitNanos += System.nanoTime() - start;
+                }
+            }
+            return removeFront();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the front value, waiting as long as needed
+     * for one to arrive
+     * @return the value that was at the front
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public T take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            if (size == 0) {
+                long start = System.nanoTime();
+                try {
+                    while (size == 0) {
+                        notEmpty.await();
+                    }
+                } finally {
+                    consumerWaitNanos += System.nanoTime() - start;
+                }
+            }
+            return removeFront();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts each value, in order, at the end of the Queue, applying
+     * the rejection policy to each value that finds the Queue full
+     * @param values the values to insert
+     * @throws NullPointerException when a value is null
+     * @throws IllegalStateException as for enqueue()
+     */
+    public void enqueueAll(Iterable<? extends T> values)
+            throws NullPointerException, IllegalStateException {
+        if (policy == RejectionPolicy.BLOCK) {
+            for (T value : values) {
+                enqueue(value);
+            }
+            return;
+        }
+        // Without waiting, the whole batch can go in under one lock
+        lock.lock();
+        try {
+            for (T value : values) {
+                enqueue(value);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes up to max values from the front of the Queue and adds
+     * them, in order, to a collection, under a single lock
+     * @param target the collection receiving the values
+     * @param max the largest number of values to move
+     * @return the number of values moved
+     * @throws IllegalArgumentException when max < 0
+     */
+    public int drainTo(Collection<? super T> target, int max) throws IllegalArgumentException {
+        if (max < 0) {
+            throw new IllegalArgumentException("drainTo(): max cannot be negative!");
+        }
+        lock.lock();
+        try {
+            int count = Math.min(max, size);
+            for (int i = 0; i < count; i++) {
+                target.add(removeFront());
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes up to n values from the front of the Queue
+     * @param n the largest number of values to remove
+     * @return the removed values in order, fewer than n when the
+     * Queue runs out
+     * @throws IllegalArgumentException when n < 0
+     */
+    public List<T> dequeueBatch(int n) throws IllegalArgumentException {
+        List<T> batch = new ArrayList<>(Math.min(Math.max(n, 0), items.length));
+        drainTo(batch, n);
+        return batch;
+    }
+
+    /****METRICS****/
+
+    /**
+     * Returns the largest depth the Queue has reached.
+     * @return the peak number of values held at once
+     */
+    public int getPeakSize() {
+        lock.lock();
+        try {
+            return peakSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns how many values were refused because the Queue was full:
+     * by enqueue() under REJECT, by offer(), or by a timed-out offer().
+     * @return the number of refused values
+     */
+    public long getRejectedCount() {
+        lock.lock();
+        try {
+            return rejectedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns how many values were discarded under DROP_NEWEST or
+     * DROP_OLDEST.
+     * @return the number of dropped values
+     */
+    public long getDroppedCount() {
+        lock.lock();
+        try {
+            return droppedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the total time producers spent waiting for room.
+     * @return the wait time in nanoseconds
+     */
+    public long getProducerWaitNanos() {
+        lock.lock();
+        try {
+            return producerWaitNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the total time consumers spent waiting for values.
+     * @return the wait time in nanoseconds
+     */
+    public long getConsumerWaitNanos() {
+        lock.lock();
+        try {
+            return consumerWaitNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /****ADDITIONAL OPERATIONS****/
+
+    /**
+     * Returns the values stored in the Queue
+     * as a String, separated by a blank space
+     * with a new line character at the end
+     * @return a String of Queue values
+     */
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < size; i++) {
+                sb.append(items[slot(i)]).append(" ");
+            }
+            sb.append("\n");
+            return sb.toString();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /****HELPERS****/
+
+    /**
+     * Rejects null values.
+     * @param data the value to check
+     * @throws NullPointerException when data is null
+     */
+    private static void checkNotNull(Object data) throws NullPointerException {
+        if (data == null) {
+            throw new NullPointerException("null values are not allowed!");
+        }
+    }
+
+    /**
+     * Adds a value at the end and wakes a waiting consumer.
+     * Called with the lock held and room in the array.
+     * @param data the value to add
+     */
+    private void insert(T data) {
+        items[slot(size)] = data;
+        size++;
+        if (size > peakSize) {
+            peakSize = size;
+        }
+        notEmpty.signal();
+    }
+
+    /**
+     * Removes the front value and wakes a waiting producer.
+     * Called with the lock held and the Queue not empty.
+     * @return the value that was at the front
+     */
+    @SuppressWarnings("unchecked")
+    private T removeFront() {
+        T data = (T) items[front];
+        items[front] = null;
+        front = slot(1);
+        size--;
+        notFull.signal();
+        return data;
+    }
+
+    /**
+     * Returns the array slot of the value a number of places behind
+     * the front, wrapping around the end of the array.
+     * @param offset the distance from the front, from 0 to capacity
+     * @return the array index
+     */
+    private int slot(int offset) {
+        int index = front + offset;
+        return (index >= items.length) ? index - items.length : index;
+    }
+}
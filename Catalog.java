@@ -0,0 +1,68 @@
+/**
+ * Catalog.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 3
+ */
+import java.util.stream.Stream;
+
+/**
+ * The funds offered to customers, in menu order, with lookups by ticker
+ * and by name. A catalog hands out the same MutualFund object for a fund
+ * on every call, so price listeners and accounts stay attached to it.
+ */
+public interface Catalog extends Iterable<MutualFund> {
+    /**
+     * Returns the number of funds in the catalog.
+     * @return the number of funds.
+     */
+    int getLength();
+
+    /**
+     * Returns a number that changes whenever funds are added, removed or
+     * given a new name or ticker, so a cached lookup can tell it is stale.
+     * @return the catalog's version.
+     */
+    int getVersion();
+
+    /**
+     * Determines whether the catalog is empty.
+     * @return whether there are no funds.
+     */
+    boolean isEmpty();
+
+    /**
+     * Returns the fund at a menu position.
+     * @param index the position, from 0 to getLength() - 1.
+     * @return the fund at that position.
+     * @throws IndexOutOfBoundsException when the index is out of bounds.
+     */
+    MutualFund get(int index) throws IndexOutOfBoundsException;
+
+    /**
+     * Looks up a fund by ticker symbol, ignoring case and surrounding
+     * whitespace.
+     * @param ticker the ticker symbol.
+     * @return the fund, or null if no fund has that ticker.
+     */
+    MutualFund findByTicker(String ticker);
+
+    /**
+     * Looks up a fund by name, ignoring case and differences in spacing.
+     * @param name the fund name.
+     * @return the fund, or null if no fund has that name.
+     */
+    MutualFund findByName(String name);
+
+    /**
+     * Looks up a fund by ticker, falling back to its name.
+     * @param query a ticker symbol or a fund name.
+     * @return the fund, or null if none matches.
+     */
+    MutualFund find(String query);
+
+    /**
+     * Returns a sequential Stream over the funds in menu order.
+     * @return a Stream of the funds.
+     */
+    Stream<MutualFund> stream();
+}
@@ -0,0 +1,416 @@
+/**
+ * CatalogLoader.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 3
+ */
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Loads a fund catalog file of three-line records (name, ticker, price)
+ * in parallel. The file is memory-mapped and cut into chunks of about
+ * chunkBytes each, and is read in two parallel passes:
+ *
+ * 1. Each chunk counts its newlines, eight bytes at a time. A prefix sum
+ *    over the counts gives the line number at the start of every chunk.
+ * 2. Each chunk skips ahead to the first line whose number is a multiple
+ *    of three, so it starts on a record boundary, and parses every record
+ *    that starts inside it, reading past its end to finish the last one.
+ *
+ * Names and tickers are decoded straight from the mapped bytes, and
+ * prices are parsed from the bytes without building a String. The
+ * chunks' funds are then added to the catalog in file order. After each
+ * load the loader reports the bytes read, the time taken and MB/s.
+ */
+public class CatalogLoader {
+    private static final int DEFAULT_CHUNK_BYTES = 8 << 20;
+    private static final long ONES = 0x0101010101010101L;
+    private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+    private static final long LOW_SEVEN = 0x7F7F7F7F7F7F7F7FL;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final ForkJoinPool pool;
+    private final int chunkBytes;
+    private long bytesRead;
+    private long elapsedNanos;
+    private int fundsLoaded;
+
+    /****CONSTRUCTORS****/
+
+    /**
+     * Creates a loader that uses the common ForkJoinPool.
+     */
+    public CatalogLoader() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Creates a loader with a given pool and chunk size.
+     * @param pool the pool that runs the chunk tasks.
+     * @param chunkBytes the approximate number of bytes per chunk.
+     * @throws IllegalArgumentException when chunkBytes < 1
+     */
+    public CatalogLoader(ForkJoinPool pool, int chunkBytes) throws IllegalArgumentException {
+        if (chunkBytes < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        }
+        this.pool = pool;
+        this.chunkBytes = chunkBytes;
+    }
+
+    /****ACCESSORS****/
+
+    /**
+     * Returns the size of the last file loaded.
+     * @return the number of bytes read
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Returns how long the last load took.
+     * @return the load time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the number of funds in the last file loaded.
+     * @return the number of funds
+     */
+    public int getFundsLoaded() {
+        return fundsLoaded;
+    }
+
+    /**
+     * Returns the throughput of the last load.
+     * @return megabytes (10^6 bytes) read per second
+     */
+    public double getMegabytesPerSecond() {
+        return (elapsedNanos == 0) ? 0 : bytesRead * 1e3 / elapsedNanos;
+    }
+
+    /**
+     * Summarizes the last load in one line.
+     * @return the funds, size, time and throughput of the last load
+     */
+    public String report() {
+        return String.format("Loaded %d funds (%.1f MB) in %.1f ms, %.1f MB/s",
+            fundsLoaded, bytesRead / 1e6, elapsedNanos / 1e6, getMegabytesPerSecond());
+    }
+
+    /****LOADING****/
+
+    /**
+     * Loads a catalog file.
+     * @param file the file of three-line records: name, ticker, price.
+     * @return the catalog, in file order.
+     * @throws FileNotFoundException when the file does not exist.
+     * @throws IOException when the file cannot be read.
+     * @throws IllegalArgumentException when the file is over 2 GB, ends
+     * in the middle of a record, has an invalid price, or repeats a
+     * ticker or name.
+     */
+    public FundCatalog load(Path file) throws IOException, IllegalArgumentException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Catalog files over 2 GB are not supported.");
+            }
+            ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            FundCatalog catalog = parse(bytes, (int) size);
+            bytesRead = size;
+            fundsLoaded = catalog.getLength();
+            elapsedNanos = System.nanoTime() - start;
+            return catalog;
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException(file.toString());
+        }
+    }
+
+    /****HELPERS****/
+
+    /**
+     * Runs both passes over the mapped file.
+     * @param bytes the mapped file.
+     * @param size the number of bytes in the file.
+     * @return the catalog.
+     * @throws IllegalArgumentException when a record is incomplete or invalid.
+     */
+    private FundCatalog parse(ByteBuffer bytes, int size) throws IllegalArgumentException {
+        // Trailing blank lines and spaces are not part of any record
+        int limit = size;
+        while (limit > 0 && isSpace(bytes.get(limit - 1))) {
+            limit--;
+        }
+        if (limit == 0) {
+            return new FundCatalog();
+        }
+        int chunks = (int) Math.max(1, Math.min(limit / (long) chunkBytes, 1 << 16));
+        int[] bounds = new int[chunks + 1];
+        for (int i = 0; i <= chunks; i++) {
+            bounds[i] = (int) ((long) limit * i / chunks);
+        }
+
+        // Pass 1: newlines per chunk, then the line number at each chunk start
+        List<Future<Long>> counts = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            int from = bounds[i];
+            int to = bounds[i + 1];
+            counts.add(pool.submit(() -> countNewlines(bytes, from, to)));
+        }
+        long[] linesBefore = new long[chunks + 1];
+        for (int i = 0; i < chunks; i++) {
+            linesBefore[i + 1] = linesBefore[i] + join(counts.get(i));
+        }
+        long lines = linesBefore[chunks] + 1;
+        if (lines % 3 != 0) {
+            throw new IllegalArgumentException("Catalog ends in the middle of a record.");
+        }
+
+        // Pass 2: each chunk parses the records that start inside it
+        final int end = limit;
+        List<Future<List<MutualFund>>> parts = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            int from = bounds[i];
+            int to = bounds[i + 1];
+            long line = linesBefore[i];
+            parts.add(pool.submit(() -> parseChunk(bytes, from, to, end, line)));
+        }
+        FundCatalog catalog = new FundCatalog((int) (lines / 3));
+        for (Future<List<MutualFund>> part : parts) {
+            for (MutualFund fund : join(part)) {
+                catalog.add(fund);
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * Counts the newlines in a range, eight bytes at a time. In each
+     * word, bytes equal to '\n' become zero after the XOR, and the
+     * expression sets the high bit of exactly the zero bytes.
+     * @param bytes the mapped file.
+     * @param from the first byte of the range.
+     * @param to one past the last byte of the range.
+     * @return the number of '\n' bytes in the range.
+     */
+    private static long countNewlines(ByteBuffer bytes, int from, int to) {
+        long count = 0;
+        int i = from;
+        for (; i + Long.BYTES <= to; i += Long.BYTES) {
+            long word = bytes.getLong(i) ^ NEWLINES;
+            long zeros = ~(((word & LOW_SEVEN) + LOW_SEVEN) | word | LOW_SEVEN);
+            count += Long.bitCount(zeros);
+        }
+        for (; i < to; i++) {
+            if (bytes.get(i) == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Parses the records whose first line starts in [from, to).
+     * @param bytes the mapped file.
+     * @param from the first byte of the chunk.
+     * @param to one past the last byte of the chunk.
+     * @param limit one past the last byte of the last record.
+     * @param line the number of newlines before from.
+     * @return the chunk's funds in file order.
+     * @throws IllegalArgumentException when a price is invalid.
+     */
+    private static List<MutualFund> parseChunk(ByteBuffer bytes, int from, int to, int limit,
+                                               long line) throws IllegalArgumentException {
+        List<MutualFund> funds = new ArrayList<>();
+        byte[] scratch = new byte[256];
+        int position = from;
+        // Move to the start of a line, then to the start of a record
+        if (position > 0 && bytes.get(position - 1) != '\n') {
+            position = nextLine(bytes, position, limit);
+            line++;
+        }
+        while (line % 3 != 0 && position < to) {
+            position = nextLine(bytes, position, limit);
+            line++;
+        }
+        while (position < to) {
+            int nameEnd = lineEnd(bytes, position, limit);
+            int tickerStart = nameEnd + 1;
+            int tickerEnd = lineEnd(bytes, tickerStart, limit);
+            int priceStart = tickerEnd + 1;
+            int priceEnd = lineEnd(bytes, priceStart, limit);
+            scratch = ensure(scratch, Math.max(nameEnd - position, tickerEnd - tickerStart));
+            String name = decode(bytes, position, nameEnd, scratch);
+            String ticker = decode(bytes, tickerStart, tickerEnd, scratch);
+            double price = parsePrice(bytes, priceStart, priceEnd, scratch);
+            funds.add(new MutualFund(name, ticker, price));
+            position = priceEnd + 1;
+        }
+        return funds;
+    }
+
+    /**
+     * Finds the end of the line starting at a position.
+     * @param bytes the mapped file.
+     * @param position the start of the line.
+     * @param limit one past the last byte to read.
+     * @return the index of the line's '\n', or limit.
+     */
+    private static int lineEnd(ByteBuffer bytes, int position, int limit) {
+        while (position < limit && bytes.get(position) != '\n') {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Finds the start of the line after the one containing a position.
+     * @param bytes the mapped file.
+     * @param position a byte in the current line.
+     * @param limit one past the last byte to read.
+     * @return the start of the next line, or past limit.
+     */
+    private static int nextLine(ByteBuffer bytes, int position, int limit) {
+        return lineEnd(bytes, position, limit) + 1;
+    }
+
+    /**
+     * Decodes a line as UTF-8, without a trailing carriage return.
+     * @param bytes the mapped file.
+     * @param from the start of the line.
+     * @param to the index of the line's '\n'.
+     * @param scratch a buffer at least to - from long.
+     * @return the line's text.
+     */
+    private static String decode(ByteBuffer bytes, int from, int to, byte[] scratch) {
+        if (to > from && bytes.get(to - 1) == '\r') {
+            to--;
+        }
+        bytes.get(from, scratch, 0, to - from);
+        return new String(scratch, 0, to - from, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses a price from bytes. Plain decimals with at most 18 digits
+     * and 22 fraction digits are parsed exactly: the digits form an
+     * integer below 2^53 and the power of ten is an exact double, so
+     * one division gives the correctly rounded result. Anything else,
+     * such as an exponent, falls back to Double.parseDouble.
+     * @param bytes the mapped file.
+     * @param from the start of the price line.
+     * @param to the index of the line's '\n'.
+     * @param scratch a buffer for the fallback.
+     * @return the price.
+     * @throws IllegalArgumentException when the line is not a number.
+     */
+    private static double parsePrice(ByteBuffer bytes, int from, int to, byte[] scratch)
+            throws IllegalArgumentException {
+        int i = from;
+        int end = to;
+        while (i < end && isSpace(bytes.get(i))) {
+            i++;
+        }
+        while (end > i && isSpace(bytes.get(end - 1))) {
+            end--;
+        }
+        boolean negative = i < end && bytes.get(i) == '-';
+        if (negative) {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        boolean plain = i < end;
+        for (int j = i; j < end && plain; j++) {
+            byte b = bytes.get(j);
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                plain = false;
+            }
+        }
+        int scale = Math.max(fractionDigits, 0);
+        if (plain && digits > 0 && digits <= 18 && mantissa < (1L << 53)
+                && scale < POWERS_OF_TEN.length) {
+            double value = mantissa / POWERS_OF_TEN[scale];
+            return negative ? -value : value;
+        }
+        String text = decode(bytes, from, to, ensure(scratch, to - from)).trim();
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid share price: " + text, e);
+        }
+    }
+
+    /**
+     * Determines whether a byte is an ASCII space or control character.
+     * Bytes are signed, so every byte of a multi-byte UTF-8 character is
+     * negative and must not count as whitespace.
+     * @param b the byte.
+     * @return whether b is in the range 0 to ' '.
+     */
+    private static boolean isSpace(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+
+    /**
+     * Returns a buffer of at least a given length.
+     * @param scratch the current buffer.
+     * @param length the length needed.
+     * @return scratch, or a larger buffer.
+     */
+    private static byte[] ensure(byte[] scratch, int length) {
+        return (scratch.length >= length) ? scratch : new byte[Math.max(length, scratch.length * 2)];
+    }
+
+    /**
+     * Waits for a chunk task, unwrapping its failure.
+     * @param task the task.
+     * @return the task's result.
+     * @throws IllegalArgumentException when the task rejected the input.
+     */
+    private static <V> V join(Future<V> task) throws IllegalArgumentException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading catalog.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            // The pool may rethrow a copy of the task's exception that wraps the original
+            if (cause.getCause() != null && cause.getCause().getClass() == cause.getClass()) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
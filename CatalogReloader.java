@@ -0,0 +1,496 @@
+/**
+ * CatalogReloader.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 3
+ */
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the catalog in step with its text file while the program runs.
+ * A watcher thread reloads the file whenever it changes, matches each of
+ * its funds to a live one by ticker, or else by name, and applies only
+ * the differences:
+ *
+ * - funds new to the file are added at the end of the menu;
+ * - funds gone from the file are removed, though accounts that hold them
+ *   keep them, and the same object comes back if the ticker returns;
+ * - funds whose name or ticker changed are renamed in place, keeping
+ *   their menu position, so accounts holding them follow the new name;
+ * - funds whose price in the file changed get the new price, so a
+ *   Portfolio reindexes their accounts.
+ *
+ * The startup catalog is served as it is until the first reload, so a
+ * lazily read catalog such as a BinaryCatalog stays cheap to open. The
+ * first reload copies it into a CatalogVersion, at O(n log n) for n
+ * funds. Each reload reads the file in O(file) and compares it with the
+ * live version fund by fund, which also costs O(n log n) however little
+ * changed; only building the next version is proportional to the
+ * differences, with O(log n) persistent tree updates per changed fund
+ * (see CatalogVersion). The new version is swapped in with one atomic
+ * write. A caller that needs several
+ * reads to agree, such as showing the menu and then taking a choice from
+ * it, should take current() once and read from that version; the
+ * Catalog methods of the reloader itself each read the latest version.
+ *
+ * A price in the file counts as changed when it differs from the price
+ * the file gave at the previous reload, so prices set since then by a
+ * PriceFeed are left alone. Before the first reload, the live prices
+ * stand in for the previous file.
+ *
+ * When a PriceFeed is set, changed prices are published to it as ticks
+ * stamped with the file's modification time, so its applier stays the
+ * only writer of prices: a file price and a quote for the same fund are
+ * ordered by timestamp, and the newer one wins. Without a feed, the
+ * reloader sets the prices itself.
+ */
+public class CatalogReloader implements Catalog, AutoCloseable {
+    private static final long SETTLE_MILLIS = 50;
+
+    private final Path file;
+    private final CatalogLoader loader;
+    private final AtomicReference<Catalog> current;
+    private FundCatalog lastLoaded;
+    private final Map<String, MutualFund> retired;
+    private volatile PriceFeed feed;
+    private WatchService watcher;
+    private Thread watchThread;
+    private volatile String lastReport;
+    private volatile int reloadCount;
+    private volatile int failureCount;
+
+    /****CONSTRUCTORS****/
+
+    /**
+     * Creates a reloader for a catalog loaded from a file, which serves
+     * as the first version. Call watch() to start following changes to
+     * the file.
+     * @param catalog the catalog as loaded at startup.
+     * @param file the text file the catalog was loaded from.
+     */
+    public CatalogReloader(Catalog catalog, Path file) {
+        this.file = file;
+        this.loader = new CatalogLoader();
+        this.current = new AtomicReference<>(catalog);
+        this.retired = new HashMap<>();
+        this.lastReport = "not reloaded";
+    }
+
+    /****ACCESSORS****/
+
+    /**
+     * Returns the latest version of the catalog. The version does not
+     * change after it is returned.
+     * @return the current catalog.
+     */
+    public Catalog current() {
+        return current.get();
+    }
+
+    /**
+     * Returns the number of the current version, starting at 1.
+     * @return the version number.
+     */
+    @Override
+    public int getVersion() {
+        Catalog catalog = current.get();
+        return (catalog instanceof CatalogVersion) ? catalog.getVersion() : 1;
+    }
+
+    /**
+     * Returns how many reloads changed the catalog.
+     * @return the number of reloads applied.
+     */
+    public int getReloadCount() {
+        return reloadCount;
+    }
+
+    /**
+     * Returns how many reloads failed, leaving the catalog as it was.
+     * @return the number of failed reloads.
+     */
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * Describes the last reload.
+     * @return what the last reload changed and how long it took.
+     */
+    public String report() {
+        return lastReport;
+    }
+
+    /**
+     * Returns the number of funds in the current version.
+     * @return the number of funds.
+     */
+    @Override
+    public int getLength() {
+        return current.get().getLength();
+    }
+
+    /**
+     * Determines whether the current version is empty.
+     * @return whether there are no funds.
+     */
+    @Override
+    public boolean isEmpty() {
+        return current.get().isEmpty();
+    }
+
+    /**
+     * Returns the fund at a menu position in the current version.
+     * @param index the position, from 0 to getLength() - 1.
+     * @return the fund at that position.
+     * @throws IndexOutOfBoundsException when the index is out of bounds.
+     */
+    @Override
+    public MutualFund get(int index) throws IndexOutOfBoundsException {
+        return current.get().get(index);
+    }
+
+    /**
+     * Looks up a fund by ticker in the current version.
+     * @param ticker the ticker symbol.
+     * @return the fund, or null if no fund has that ticker.
+     */
+    @Override
+    public MutualFund findByTicker(String ticker) {
+        return current.get().findByTicker(ticker);
+    }
+
+    /**
+     * Looks up a fund by name in the current version.
+     * @param name the fund name.
+     * @return the fund, or null if no fund has that name.
+     */
+    @Override
+    public MutualFund findByName(String name) {
+        return current.get().findByName(name);
+    }
+
+    /**
+     * Looks up a fund by ticker, falling back to its name, in the
+     * current version.
+     * @param query a ticker symbol or a fund name.
+     * @return the fund, or null if none matches.
+     */
+    @Override
+    public MutualFund find(String query) {
+        return current.get().find(query);
+    }
+
+    /****MUTATORS****/
+
+    /**
+     * Routes the price changes of later reloads through a feed's applier.
+     * @param feed the feed, or null for the reloader to set prices itself.
+     */
+    public void setPriceFeed(PriceFeed feed) {
+        this.feed = feed;
+    }
+
+    /****RELOADING****/
+
+    /**
+     * Reads the file and applies its differences from the live catalog.
+     * The catalog is left as it was when the file cannot be read or is
+     * not a valid catalog.
+     * @return whether anything changed.
+     * @throws IOException when the file cannot be read, or the reload is
+     * interrupted while handing prices to the feed.
+     * @throws IllegalArgumentException when the file is not a valid catalog.
+     */
+    public synchronized boolean reload() throws IOException, IllegalArgumentException {
+        long start = System.nanoTime();
+        // Read the time first, so a write during the load is not stamped too new
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        FundCatalog next = loader.load(file);
+        long parsed = System.nanoTime();
+        Catalog view = current.get();
+        // The first reload visits every fund anyway, so it also builds the
+        // version that later reloads derive from
+        CatalogVersion live = (view instanceof CatalogVersion)
+            ? (CatalogVersion) view : CatalogVersion.of(view);
+        Catalog previous = (lastLoaded != null) ? lastLoaded : live;
+
+        // Pair each fund in the file with a live one, by ticker and then by
+        // name, so a fund that changed one of them keeps its object
+        Map<MutualFund, MutualFund> matches = new IdentityHashMap<>();
+        Map<MutualFund, MutualFund> matched = new IdentityHashMap<>();
+        for (MutualFund fund : next) {
+            MutualFund match = live.findByTicker(fund.getTicker());
+            if (match != null) {
+                matches.put(fund, match);
+                matched.put(match, fund);
+            }
+        }
+        for (MutualFund fund : next) {
+            if (!matches.containsKey(fund)) {
+                MutualFund match = live.findByName(fund.getFundName());
+                if (match != null && !matched.containsKey(match)) {
+                    matches.put(fund, match);
+                    matched.put(match, fund);
+                }
+            }
+        }
+
+        List<MutualFund> removed = new ArrayList<>();
+        for (MutualFund fund : live) {
+            if (!matched.containsKey(fund)) {
+                removed.add(fund);
+            }
+        }
+        List<MutualFund> added = new ArrayList<>();
+        List<MutualFund> renamed = new ArrayList<>();
+        List<MutualFund> newNames = new ArrayList<>();
+        List<MutualFund> revived = new ArrayList<>();
+        List<MutualFund> repriced = new ArrayList<>();
+        List<MutualFund> newPrices = new ArrayList<>();
+        for (MutualFund fund : next) {
+            MutualFund match = matches.get(fund);
+            if (match == null) {
+                match = retired.get(FundCatalog.normalizeTicker(fund.getTicker()));
+                if (match == null) {
+                    // A copy, so the feed never changes the loaded prices
+                    added.add(new MutualFund(fund.getFundName(), fund.getTicker(),
+                                             fund.getPricePerShare()));
+                    continue;
+                }
+                // A fund removed earlier is back; accounts may still hold it
+                revived.add(match);
+                newNames.add(fund);
+                if (match.getPricePerShare() != fund.getPricePerShare()) {
+                    repriced.add(match);
+                    newPrices.add(fund);
+                }
+                continue;
+            }
+            if (!match.getFundName().equals(fund.getFundName())
+                    || !match.getTicker().equals(fund.getTicker())) {
+                renamed.add(match);
+                newNames.add(fund);
+            }
+            MutualFund before = previous.findByTicker(fund.getTicker());
+            if (before == null) {
+                before = previous.findByName(fund.getFundName());
+            }
+            if (before == null || before.getPricePerShare() != fund.getPricePerShare()) {
+                repriced.add(match);
+                newPrices.add(fund);
+            }
+        }
+        if (removed.isEmpty() && added.isEmpty() && renamed.isEmpty()
+                && revived.isEmpty() && repriced.isEmpty()) {
+            current.set(live);
+            lastLoaded = next;
+            lastReport = String.format("Catalog v%d unchanged (read in %.1f ms)",
+                getVersion(), (parsed - start) / 1e6);
+            return false;
+        }
+
+        // Derive the next version from the live one: free the keys of
+        // removed and renamed funds before anything takes them
+        CatalogVersion version = live;
+        for (MutualFund fund : removed) {
+            version = version.remove(fund.getTicker());
+        }
+        List<String> names = new ArrayList<>();
+        List<String> tickers = new ArrayList<>();
+        for (int i = 0; i < renamed.size(); i++) {
+            names.add(newNames.get(i).getFundName());
+            tickers.add(newNames.get(i).getTicker());
+        }
+        version = version.rekey(renamed, names, tickers);
+        for (int i = 0; i < revived.size(); i++) {
+            MutualFund fund = newNames.get(renamed.size() + i);
+            revived.get(i).rename(fund.getFundName(), fund.getTicker());
+            version = version.add(revived.get(i));
+        }
+        for (MutualFund fund : added) {
+            version = version.add(fund);
+        }
+        for (int i = 0; i < renamed.size(); i++) {
+            renamed.get(i).rename(names.get(i), tickers.get(i));
+        }
+        version = version.renumber(getVersion() + 1);
+        current.set(version);
+        for (MutualFund fund : revived) {
+            retired.remove(FundCatalog.normalizeTicker(fund.getTicker()));
+        }
+        for (MutualFund fund : removed) {
+            retired.put(FundCatalog.normalizeTicker(fund.getTicker()), fund);
+        }
+        reprice(repriced, newPrices, modified);
+        lastLoaded = next;
+        reloadCount++;
+        lastReport = String.format(
+            "Catalog v%d: %d added, %d removed, %d renamed, %d repriced in %.1f ms (read %.1f ms)",
+            version.getVersion(), added.size() + revived.size(), removed.size(), renamed.size(),
+            repriced.size(), (System.nanoTime() - start) / 1e6, (parsed - start) / 1e6);
+        return true;
+    }
+
+    /**
+     * Starts a daemon thread that reloads the catalog whenever its file
+     * is written, created or replaced, and prints each reload's report
+     * or failure to System.err.
+     * @throws IOException when the file's directory cannot be watched.
+     * @throws IllegalStateException when already watching.
+     */
+    public synchronized void watch() throws IOException, IllegalStateException {
+        if (watcher != null) {
+            throw new IllegalStateException("Already watching " + file);
+        }
+        Path directory = file.toAbsolutePath().getParent();
+        watcher = directory.getFileSystem().newWatchService();
+        directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                           StandardWatchEventKinds.ENTRY_MODIFY);
+        watchThread = new Thread(this::watchLoop, "catalog-reloader");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    /**
+     * Stops watching the file. The current version stays usable.
+     */
+    @Override
+    public void close() {
+        WatchService service;
+        Thread thread;
+        synchronized (this) {
+            service = watcher;
+            thread = watchThread;
+        }
+        if (service == null) {
+            return;
+        }
+        try {
+            service.close();
+        } catch (IOException e) {
+            // Closing a watch service only releases it
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /****ADDITIONAL OPERATIONS****/
+
+    /**
+     * Returns an iterator over the current version in menu order.
+     * @return an iterator over the funds.
+     */
+    @Override
+    public Iterator<MutualFund> iterator() {
+        return current.get().iterator();
+    }
+
+    /**
+     * Returns a sequential Stream over the current version in menu order.
+     * @return a Stream of the funds.
+     */
+    @Override
+    public Stream<MutualFund> stream() {
+        return current.get().stream();
+    }
+
+    /****HELPERS****/
+
+    /**
+     * Gives funds their prices from the file, through the feed if one is
+     * set. Call after the funds are in the current version, so the feed
+     * can find them by ticker.
+     * @param funds the funds to reprice.
+     * @param prices the file's record of each fund.
+     * @param modified when the file was last modified, in milliseconds.
+     * @throws InterruptedIOException when interrupted while handing the
+     * prices to the feed.
+     */
+    private void reprice(List<MutualFund> funds, List<MutualFund> prices, long modified)
+            throws InterruptedIOException {
+        PriceFeed target = feed;
+        if (target == null) {
+            for (int i = 0; i < funds.size(); i++) {
+                funds.get(i).setPricePerShare(prices.get(i).getPricePerShare());
+            }
+            return;
+        }
+        List<PriceTick> ticks = new ArrayList<>(funds.size());
+        for (int i = 0; i < funds.size(); i++) {
+            ticks.add(new PriceTick(funds.get(i).getTicker(), prices.get(i).getPricePerShare(),
+                                    modified));
+        }
+        try {
+            target.publish(ticks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while repricing " + file);
+        }
+    }
+
+    /**
+     * Waits for changes to the file and reloads it, until closed.
+     */
+    private void watchLoop() {
+        Path name = file.getFileName();
+        try {
+            while (true) {
+                boolean changed = touches(watcher.take(), name);
+                // Writers often save in several steps; wait for them to finish
+                WatchKey more;
+                while ((more = watcher.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= touches(more, name);
+                }
+                if (changed) {
+                    try {
+                        reload();
+                        System.err.println(lastReport);
+                    } catch (IOException | IllegalArgumentException e) {
+                        failureCount++;
+                        System.err.println("Catalog reload failed: " + e.getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed by close()
+        }
+    }
+
+    /**
+     * Determines whether a batch of events concerns the file, and
+     * readies the key for more events.
+     * @param key the signalled key.
+     * @param name the file's name within the watched directory.
+     * @return whether the file may have changed.
+     */
+    private static boolean touches(WatchKey key, Path name) {
+        boolean touched = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context())) {
+                touched = true;
+            }
+        }
+        key.reset();
+        return touched;
+    }
+}
@@ -0,0 +1,330 @@
+/**
+ * CatalogVersion.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 3
+ */
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An immutable version of the catalog. Its funds are kept in three
+ * persistent trees: by menu position, by normalized ticker and by
+ * normalized name. Adding or removing a fund returns a new version that
+ * copies O(log n) nodes of each tree and shares the rest, so a reload
+ * costs time in proportion to what changed, and readers holding an older
+ * version keep a consistent view of it without locking.
+ *
+ * Each fund is given a menu position when it is added; funds added later
+ * get later positions, so the menu keeps its order across versions and
+ * new funds appear at the end.
+ */
+public class CatalogVersion implements Catalog {
+    /**
+     * A fund with its menu position and index keys.
+     */
+    private static final class Entry {
+        private final MutualFund fund;
+        private final long position;
+        private final String tickerKey;
+        private final String nameKey;
+
+        public Entry(MutualFund fund, long position, String tickerKey, String nameKey) {
+            this.fund = fund;
+            this.position = position;
+            this.tickerKey = tickerKey;
+            this.nameKey = nameKey;
+        }
+    }
+
+    private static final Comparator<Entry> BY_POSITION =
+        Comparator.comparingLong(entry -> entry.position);
+    private static final Comparator<Entry> BY_TICKER =
+        Comparator.comparing(entry -> entry.tickerKey);
+    private static final Comparator<Entry> BY_NAME =
+        Comparator.comparing(entry -> entry.nameKey);
+
+    private final PersistentBST<Entry> menu;
+    private final PersistentBST<Entry> byTicker;
+    private final PersistentBST<Entry> byName;
+    private final long nextPosition;
+    private final int number;
+
+    /****CONSTRUCTORS****/
+
+    /**
+     * Creates an empty catalog, version 0.
+     */
+    public CatalogVersion() {
+        this(new PersistentBST<>(BY_POSITION), new PersistentBST<>(BY_TICKER),
+             new PersistentBST<>(BY_NAME), 0, 0);
+    }
+
+    /**
+     * Creates a version from its trees.
+     * @param menu the funds by menu position.
+     * @param byTicker the funds by ticker key.
+     * @param byName the funds by name key.
+     * @param nextPosition the menu position of the next fund added.
+     * @param number the version number.
+     */
+    private CatalogVersion(PersistentBST<Entry> menu, PersistentBST<Entry> byTicker,
+                           PersistentBST<Entry> byName, long nextPosition, int number) {
+        this.menu = menu;
+        this.byTicker = byTicker;
+        this.byName = byName;
+        this.nextPosition = nextPosition;
+        this.number = number;
+    }
+
+    /**
+     * Creates a version holding the funds of another catalog, in its
+     * menu order. The funds themselves are shared, not copied. The trees
+     * are built in bulk: O(n) for the menu, and one O(n log n) sort for
+     * each index, without the path copying of n separate adds.
+     * @param catalog the catalog to copy.
+     * @return the new version, numbered 1.
+     * @throws IllegalArgumentException when two funds share a ticker or name.
+     */
+    public static CatalogVersion of(Catalog catalog) throws IllegalArgumentException {
+        Entry[] entries = new Entry[catalog.getLength()];
+        int position = 0;
+        for (MutualFund fund : catalog) {
+            entries[position] = new Entry(fund, position, FundCatalog.normalizeTicker(fund.getTicker()),
+                                          FundCatalog.normalizeName(fund.getFundName()));
+            position++;
+        }
+        PersistentBST<Entry> menu = PersistentBST.fromSorted(entries, BY_POSITION);
+
+        Entry[] sorted = entries.clone();
+        Arrays.sort(sorted, BY_TICKER);
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i - 1].tickerKey.equals(sorted[i].tickerKey)) {
+                throw new IllegalArgumentException("Duplicate ticker: " + sorted[i].fund.getTicker());
+            }
+        }
+        PersistentBST<Entry> byTicker = PersistentBST.fromSorted(sorted, BY_TICKER);
+
+        sorted = entries.clone();
+        Arrays.sort(sorted, BY_NAME);
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i - 1].nameKey.equals(sorted[i].nameKey)) {
+                throw new IllegalArgumentException("Duplicate fund name: " + sorted[i].fund.getFundName());
+            }
+        }
+        PersistentBST<Entry> byName = PersistentBST.fromSorted(sorted, BY_NAME);
+        return new CatalogVersion(menu, byTicker, byName, entries.length, 1);
+    }
+
+    /****ACCESSORS****/
+
+    /**
+     * Returns the version number, which grows by one with each reload.
+     * @return the version number.
+     */
+    @Override
+    public int getVersion() {
+        return number;
+    }
+
+    /**
+     * Returns the number of funds in the catalog.
+     * @return the number of funds.
+     */
+    @Override
+    public int getLength() {
+        return menu.getSize();
+    }
+
+    /**
+     * Determines whether the catalog is empty.
+     * @return whether there are no funds.
+     */
+    @Override
+    public boolean isEmpty() {
+        return menu.isEmpty();
+    }
+
+    /**
+     * Returns the fund at a menu position in O(log n).
+     * @param index the position, from 0 to getLength() - 1.
+     * @return the fund at that position.
+     * @throws IndexOutOfBoundsException when the index is out of bounds.
+     */
+    @Override
+    public MutualFund get(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= menu.getSize()) {
+            throw new IndexOutOfBoundsException("get(): Index out of bounds: " + index);
+        }
+        return menu.select(index).fund;
+    }
+
+    /**
+     * Looks up a fund by ticker symbol, ignoring case and surrounding
+     * whitespace.
+     * @param ticker the ticker symbol.
+     * @return the fund, or null if no fund has that ticker.
+     */
+    @Override
+    public MutualFund findByTicker(String ticker) {
+        if (ticker == null) {
+            return null;
+        }
+        Entry entry = byTicker.search(new Entry(null, 0, FundCatalog.normalizeTicker(ticker), null));
+        return (entry == null) ? null : entry.fund;
+    }
+
+    /**
+     * Looks up a fund by name, ignoring case and differences in spacing.
+     * @param name the fund name.
+     * @return the fund, or null if no fund has that name.
+     */
+    @Override
+    public MutualFund findByName(String name) {
+        if (name == null) {
+            return null;
+        }
+        Entry entry = byName.search(new Entry(null, 0, null, FundCatalog.normalizeName(name)));
+        return (entry == null) ? null : entry.fund;
+    }
+
+    /**
+     * Looks up a fund by ticker, falling back to its name.
+     * @param query a ticker symbol or a fund name.
+     * @return the fund, or null if none matches.
+     */
+    @Override
+    public MutualFund find(String query) {
+        MutualFund fund = findByTicker(query);
+        return (fund != null) ? fund : findByName(query);
+    }
+
+    /****MUTATORS****/
+
+    /**
+     * Returns a version with a fund added at the end of the menu. The
+     * version number is unchanged; see renumber.
+     * @param fund the fund to add.
+     * @return the new version.
+     * @throws IllegalArgumentException when another fund already has
+     * the same ticker or name.
+     */
+    public CatalogVersion add(MutualFund fund) throws IllegalArgumentException {
+        Entry entry = new Entry(fund, nextPosition, FundCatalog.normalizeTicker(fund.getTicker()),
+                                FundCatalog.normalizeName(fund.getFundName()));
+        if (byTicker.search(entry) != null) {
+            throw new IllegalArgumentException("Duplicate ticker: " + fund.getTicker());
+        }
+        if (byName.search(entry) != null) {
+            throw new IllegalArgumentException("Duplicate fund name: " + fund.getFundName());
+        }
+        return new CatalogVersion(menu.insert(entry), byTicker.insert(entry),
+                                  byName.insert(entry), nextPosition + 1, number);
+    }
+
+    /**
+     * Returns a version without the fund that has a ticker. The version
+     * number is unchanged; see renumber.
+     * @param ticker the ticker of the fund to remove.
+     * @return the new version, or this version when no fund has that ticker.
+     */
+    public CatalogVersion remove(String ticker) {
+        Entry entry = byTicker.search(new Entry(null, 0, FundCatalog.normalizeTicker(ticker), null));
+        if (entry == null) {
+            return this;
+        }
+        return new CatalogVersion(menu.remove(entry), byTicker.remove(entry),
+                                  byName.remove(entry), nextPosition, number);
+    }
+
+    /**
+     * Returns a version in which funds are indexed under new names and
+     * tickers, keeping their menu positions. All of them are taken out
+     * before any is put back, so two funds may trade names or tickers.
+     * The funds themselves are not changed; see MutualFund.rename. The
+     * version number is unchanged; see renumber.
+     * @param funds the funds to move, each found by its current ticker.
+     * @param names the new name of each fund.
+     * @param tickers the new ticker of each fund.
+     * @return the new version.
+     * @throws IllegalArgumentException when a fund is not in this version,
+     * or another fund already has one of the new tickers or names.
+     */
+    public CatalogVersion rekey(List<MutualFund> funds, List<String> names, List<String> tickers)
+            throws IllegalArgumentException {
+        PersistentBST<Entry> menu = this.menu;
+        PersistentBST<Entry> byTicker = this.byTicker;
+        PersistentBST<Entry> byName = this.byName;
+        long[] positions = new long[funds.size()];
+        for (int i = 0; i < funds.size(); i++) {
+            MutualFund fund = funds.get(i);
+            Entry entry = byTicker.search(
+                new Entry(null, 0, FundCatalog.normalizeTicker(fund.getTicker()), null));
+            if (entry == null || entry.fund != fund) {
+                throw new IllegalArgumentException("Not in this version: " + fund.getTicker());
+            }
+            positions[i] = entry.position;
+            menu = menu.remove(entry);
+            byTicker = byTicker.remove(entry);
+            byName = byName.remove(entry);
+        }
+        for (int i = 0; i < funds.size(); i++) {
+            Entry entry = new Entry(funds.get(i), positions[i],
+                                    FundCatalog.normalizeTicker(tickers.get(i)),
+                                    FundCatalog.normalizeName(names.get(i)));
+            if (byTicker.search(entry) != null) {
+                throw new IllegalArgumentException("Duplicate ticker: " + tickers.get(i));
+            }
+            if (byName.search(entry) != null) {
+                throw new IllegalArgumentException("Duplicate fund name: " + names.get(i));
+            }
+            menu = menu.insert(entry);
+            byTicker = byTicker.insert(entry);
+            byName = byName.insert(entry);
+        }
+        return new CatalogVersion(menu, byTicker, byName, nextPosition, number);
+    }
+
+    /**
+     * Returns a copy of this version with a given version number.
+     * @param number the version number.
+     * @return the renumbered version.
+     */
+    public CatalogVersion renumber(int number) {
+        return new CatalogVersion(menu, byTicker, byName, nextPosition, number);
+    }
+
+    /****ADDITIONAL OPERATIONS****/
+
+    /**
+     * Returns an iterator over the funds in menu order.
+     * @return an iterator over the funds.
+     */
+    @Override
+    public Iterator<MutualFund> iterator() {
+        Iterator<Entry> entries = menu.iterator();
+        return new Iterator<MutualFund>() {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public MutualFund next() {
+                return entries.next().fund;
+            }
+        };
+    }
+
+    /**
+     * Returns a sequential Stream over the funds in menu order.
+     * @return a Stream of the funds.
+     */
+    @Override
+    public Stream<MutualFund> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+}
@@ -0,0 +1,202 @@
+/**
+ * ConcurrentBST.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 3
+ */
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A sorted index that many threads can read while others update it.
+ * It holds the current version of a PersistentBST: an update builds the
+ * next version, which copies only the path to the change, and publishes
+ * it with a single volatile write. Readers never lock and never observe a
+ * half-finished update, because every version they read is complete.
+ * Writers are serialized by a lock, so no copied path is ever wasted.
+ * @param <T> the generic data stored in the tree
+ */
+public class ConcurrentBST<T> implements Iterable<T> {
+    private volatile PersistentBST<T> current;
+    private final ReentrantLock writeLock;
+
+    /****CONSTRUCTORS****/
+
+    /**
+     * Creates an empty tree whose ordering is fixed at construction.
+     * @param order the way the tree is organized.
+     */
+    public ConcurrentBST(Comparator<T> order) {
+        this.current = new PersistentBST<>(order);
+        this.writeLock = new ReentrantLock();
+    }
+
+    /****ACCESSORS****/
+
+    /**
+     * Returns the current version of the tree in O(1). The snapshot
+     * never changes, so a report can read it while updates continue.
+     * @return the current immutable version.
+     */
+    public PersistentBST<T> snapshot() {
+        return current;
+    }
+
+    /**
+     * Returns the ordering fixed at construction.
+     * @return the tree's Comparator.
+     */
+    public Comparator<T> getOrder() {
+        return current.getOrder();
+    }
+
+    /**
+     * Determines whether the tree is empty.
+     * @return whether the tree is empty.
+     */
+    public boolean isEmpty() {
+        return current.isEmpty();
+    }
+
+    /**
+     * Returns the current size of the tree (number of nodes).
+     * @return the size of the tree.
+     */
+    public int getSize() {
+        return current.getSize();
+    }
+
+    /**
+     * Returns the height of tree by counting edges.
+     * @return the height of the tree.
+     */
+    public int getHeight() {
+        return current.getHeight();
+    }
+
+    /**
+     * Returns the smallest value in the tree.
+     * @precondition !isEmpty()
+     * @return the smallest value in the tree.
+     * @throws NoSuchElementException when the precondition is violated.
+     */
+    public T findMin() throws NoSuchElementException {
+        return current.findMin();
+    }
+
+    /**
+     * Returns the largest value in the tree.
+     * @precondition !isEmpty()
+     * @return the largest value in the tree.
+     * @throws NoSuchElementException when the precondition is violated.
+     */
+    public T findMax() throws NoSuchElementException {
+        return current.findMax();
+    }
+
+    /**
+     * Searches for a specified value in the tree without locking.
+     * @param data the value to search for.
+     * @return the data stored in that Node of the tree, otherwise null.
+     */
+    public T search(T data) {
+        return current.search(data);
+    }
+
+    /**
+     * Searches for a specified value in the tree without locking.
+     * @param data the value to search for.
+     * @param cmp the Comparator that indicates the way
+     * the data in the tree was ordered.
+     * @return the data stored in that Node of the tree, otherwise null.
+     * @throws IllegalArgumentException when cmp does not match the
+     * tree's ordering.
+     */
+    public T search(T data, Comparator<T> cmp) throws IllegalArgumentException {
+        return current.search(data, cmp);
+    }
+
+    /****MUTATORS****/
+
+    /**
+     * Inserts a new value in the tree.
+     * Note: updates nothing when an equal value is already in the tree.
+     * @param data the data to insert.
+     */
+    public void insert(T data) {
+        writeLock.lock();
+        try {
+            current = current.insert(data);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Inserts a new value in the tree.
+     * @param data the data to insert.
+     * @param cmp the Comparator indicating how data in the tree is ordered.
+     * @throws IllegalArgumentException when cmp does not match the
+     * tree's ordering.
+     */
+    public void insert(T data, Comparator<T> cmp) throws IllegalArgumentException {
+        writeLock.lock();
+        try {
+            current = current.insert(data, cmp);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes a value from the tree.
+     * Note: updates nothing when the element is not in the tree.
+     * @param data the value to remove.
+     */
+    public void remove(T data) {
+        writeLock.lock();
+        try {
+            current = current.remove(data);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes a value from the tree.
+     * @param data the value to remove.
+     * @param cmp the Comparator indicating how data in the tree is organized.
+     * @throws IllegalArgumentException when cmp does not match the
+     * tree's ordering.
+     */
+    public void remove(T data, Comparator<T> cmp) throws IllegalArgumentException {
+        writeLock.lock();
+        try {
+            current = current.remove(data, cmp);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /****ADDITIONAL OPERATIONS****/
+
+    /**
+     * Returns an iterator over the data in ascending order. It reads the
+     * version of the tree current when it was created, so it is never
+     * affected by later updates.
+     * @return an iterator from the smallest to the largest value.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return current.iterator();
+    }
+
+    /**
+     * Returns a String containing the data in order followed by a new line.
+     * @return a String of data in order
+     */
+    public String inOrderString() {
+        return current.inOrderString();
+    }
+}
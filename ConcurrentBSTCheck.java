@@ -0,0 +1,222 @@
+/**
+ * ConcurrentBSTCheck.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 3
+ */
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Checks that ConcurrentBST behaves as if each operation took effect at
+ * one instant between its call and its return, while 4 writers update
+ * the tree and 32 readers search it.
+ *
+ * Each key belongs to one writer, which alternately inserts and removes
+ * it. Operations on a key are numbered 1, 2, 3, ...: odd ones insert an
+ * Item carrying the operation's number, even ones remove it, so after
+ * operation j the key is present exactly when j is odd. The writer
+ * publishes j as started before calling the tree and as completed after
+ * it returns. That gives each read a window of states it may observe:
+ *
+ * - no older than the last operation completed before the read began;
+ * - no newer than the last operation started before the read returned;
+ * - no older than any state a read that returned before this one began
+ *   observed, so reads never go back in time, even across threads.
+ *
+ * A read that finds the key knows the exact state from the Item; a read
+ * that misses it must fit an even state in its window. After the run,
+ * the tree must hold exactly the keys whose last operation was an
+ * insert, each with that operation's Item. Any violation fails the check
+ * with exit status 1.
+ *
+ * Run with: java ConcurrentBSTCheck [seconds]
+ */
+public class ConcurrentBSTCheck {
+    private static final int READERS = 32;
+    private static final int WRITERS = 4;
+    private static final int KEYS = 100_000;
+
+    /**
+     * A key with the number of the operation that inserted it.
+     */
+    private static final class Item {
+        private final int key;
+        private final long operation;
+
+        public Item(int key, long operation) {
+            this.key = key;
+            this.operation = operation;
+        }
+    }
+
+    private static final Comparator<Item> BY_KEY = Comparator.comparingInt(item -> item.key);
+
+    private static final AtomicLongArray started = new AtomicLongArray(KEYS);
+    private static final AtomicLongArray completed = new AtomicLongArray(KEYS);
+    private static final AtomicLongArray observed = new AtomicLongArray(KEYS);
+    private static final AtomicLong violations = new AtomicLong();
+
+    /**
+     * Runs the check.
+     * @param args optionally, how many seconds to run; 5 by default.
+     * @throws InterruptedException when interrupted while waiting.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        long seconds = (args.length > 0) ? Long.parseLong(args[0]) : 5;
+        ConcurrentBST<Item> tree = new ConcurrentBST<>(BY_KEY);
+        for (int key = 0; key < KEYS; key += 2) {
+            tree.insert(new Item(key, 1));
+            started.set(key, 1);
+            completed.set(key, 1);
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong lookups = new AtomicLong();
+        AtomicLong updates = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(READERS + WRITERS);
+
+        for (int i = 0; i < READERS; i++) {
+            startThread("reader-" + i, () -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                while (running.get()) {
+                    read(tree, random.nextInt(KEYS));
+                    count++;
+                }
+                lookups.addAndGet(count);
+            }, done);
+        }
+        for (int i = 0; i < WRITERS; i++) {
+            int writer = i;
+            startThread("writer-" + i, () -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                while (running.get()) {
+                    // The keys congruent to writer mod WRITERS are this writer's alone
+                    int key = random.nextInt(KEYS / WRITERS) * WRITERS + writer;
+                    long operation = completed.get(key) + 1;
+                    started.set(key, operation);
+                    if (operation % 2 == 1) {
+                        tree.insert(new Item(key, operation));
+                    } else {
+                        tree.remove(new Item(key, 0));
+                    }
+                    completed.set(key, operation);
+                    count++;
+                }
+                updates.addAndGet(count);
+            }, done);
+        }
+
+        Thread.sleep(seconds * 1000);
+        running.set(false);
+        done.await();
+
+        long present = checkFinal(tree);
+        System.out.printf("%d readers, %d writers, %d s: %d lookups, %d updates, "
+                          + "%d violations, final size %d, height %d%n",
+                          READERS, WRITERS, seconds, lookups.get(), updates.get(),
+                          violations.get(), present, tree.getHeight());
+        if (violations.get() > 0) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+        System.out.println("OK");
+    }
+
+    /**
+     * Searches for a key and checks the state it observed against the
+     * window the writers' history allows.
+     * @param tree the tree to search.
+     * @param key the key to search for.
+     */
+    private static void read(ConcurrentBST<Item> tree, int key) {
+        long oldest = Math.max(completed.get(key), observed.get(key));
+        Item found = tree.search(new Item(key, 0));
+        long newest = started.get(key);
+
+        long state;
+        if (found != null) {
+            state = found.operation;
+            if (found.key != key || state % 2 == 0 || state < oldest || state > newest) {
+                violation("read of " + key + " found operation " + state
+                          + ", allowed " + oldest + " to " + newest);
+            }
+        } else {
+            // The oldest even state the read may have seen
+            state = (oldest % 2 == 0) ? oldest : oldest + 1;
+            if (state > newest) {
+                violation("read of " + key + " missed it, allowed " + oldest + " to " + newest);
+            }
+        }
+        // Later reads must not observe anything older
+        observed.accumulateAndGet(key, state, Math::max);
+    }
+
+    /**
+     * Checks that the tree holds exactly the keys whose last operation
+     * inserted them, in order.
+     * @param tree the tree after every writer has stopped.
+     * @return the number of keys present.
+     */
+    private static long checkFinal(ConcurrentBST<Item> tree) {
+        long present = 0;
+        for (int key = 0; key < KEYS; key++) {
+            long last = completed.get(key);
+            Item found = tree.search(new Item(key, 0));
+            if (last % 2 == 1) {
+                present++;
+                if (found == null || found.operation != last) {
+                    violation("key " + key + " should hold operation " + last);
+                }
+            } else if (found != null) {
+                violation("key " + key + " should be absent after operation " + last);
+            }
+        }
+        if (tree.getSize() != present) {
+            violation("size " + tree.getSize() + ", expected " + present);
+        }
+        int previous = -1;
+        for (Iterator<Item> items = tree.iterator(); items.hasNext(); ) {
+            int key = items.next().key;
+            if (key <= previous) {
+                violation("iteration out of order at " + key);
+            }
+            previous = key;
+        }
+        return present;
+    }
+
+    /**
+     * Records a violation, printing the first few.
+     * @param message what went wrong.
+     */
+    private static void violation(String message) {
+        if (violations.incrementAndGet() <= 10) {
+            System.out.println("  " + message);
+        }
+    }
+
+    /**
+     * Starts a daemon thread that counts down a latch when it finishes.
+     * @param name the thread's name.
+     * @param body what the thread runs.
+     * @param done the latch to count down.
+     */
+    private static void startThread(String name, Runnable body, CountDownLatch done) {
+        Thread thread = new Thread(() -> {
+            try {
+                body.run();
+            } finally {
+                done.countDown();
+            }
+        }, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
@@ -0,0 +1,315 @@
+/**
+ * ConcurrentQueue.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 3
+ */
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A Queue that many threads can enqueue to and dequeue from at once
+ * without locking (the Michael-Scott queue). The list always starts with
+ * a dummy node; head points at it and tail at the last node or somewhere
+ * behind it, but never behind head. Enqueue links a node after the last
+ * one with a compare-and-set and then swings tail; dequeue swings head to
+ * the first real node, which becomes the new dummy. A thread that finds
+ * tail lagging helps move it, so no thread ever waits on another.
+ *
+ * Use poll() to take the front value: getFront() followed by dequeue()
+ * can lose a race with another consumer between the two calls.
+ * Null values are not allowed, since poll() uses null to mean empty.
+ * @param <T> the generic data stored in the Queue
+ */
+public class ConcurrentQueue<T> implements Q<T> {
+    private static final class Node<T> {
+        private volatile T data;
+        private final AtomicReference<Node<T>> next;
+
+        public Node(T data) {
+            this.data = data;
+            this.next = new AtomicReference<>(null);
+        }
+    }
+
+    private final AtomicReference<Node<T>> head;
+    private final AtomicReference<Node<T>> tail;
+    private final AtomicInteger size;
+
+    /****CONSTRUCTORS****/
+
+    /**
+     * Default constructor for the ConcurrentQueue class
+     * @postcondition a new empty ConcurrentQueue
+     */
+    public ConcurrentQueue() {
+        Node<T> dummy = new Node<>(null);
+        head = new AtomicReference<>(dummy);
+        tail = new AtomicReference<>(dummy);
+        size = new AtomicInteger(0);
+    }
+
+    /**
+     * Converts an array into a ConcurrentQueue
+     * @param array the array to copy into the Queue
+     * @throws NullPointerException when the array contains null
+     */
+    public ConcurrentQueue(T[] array) throws NullPointerException {
+        this();
+        if (array != null) {
+            for (T element : array) {
+                enqueue(element);
+            }
+        }
+    }
+
+    /****ACCESSORS****/
+
+    /**
+     * Returns the value stored at the front of the Queue when called.
+     * Another thread may dequeue it right after, so consumers should
+     * use poll() instead of getFront() followed by dequeue().
+     * @return the value at the front of the queue
+     * @precondition !isEmpty()
+     * @throws NoSuchElementException when the
+     * precondition is violated
+     */
+    @Override
+    public T getFront() throws NoSuchElementException {
+        while (true) {
+            Node<T> first = head.get().next.get();
+            if (first == null) {
+                throw new NoSuchElementException("getFront(): Queue is empty!");
+            }
+            T data = first.data;
+            if (data != null) {
+                return data;
+            }
+            // first was dequeued and became the dummy; read again
+        }
+    }
+
+    /**
+     * Returns the size of the Queue. Updates in progress on other
+     * threads may not be counted yet.
+     * @return the size from 0 to n
+     */
+    @Override
+    public int getSize() {
+        return Math.max(size.get(), 0);
+    }
+
+    /**
+     * Determines whether a Queue is empty
+     * @return whether the Queue contained no elements when called
+     */
+    @Override
+    public boolean isEmpty() {
+        return head.get().next.get() == null;
+    }
+
+    /****MUTATORS****/
+
+    /**
+     * Inserts a new value at the end of the Queue without locking
+     * @param data the new data to insert
+     * @postcondition the value is at the end of the Queue
+     * @throws NullPointerException when data is null
+     */
+    @Override
+    public void enqueue(T data) throws NullPointerException {
+        if (data == null) {
+            throw new NullPointerException("enqueue(): null values are not allowed!");
+        }
+        Node<T> node = new Node<>(data);
+        while (true) {
+            Node<T> last = tail.get();
+            Node<T> next = last.next.get();
+            if (last != tail.get()) {
+                continue; // tail moved while reading; start over
+            }
+            if (next != null) {
+                tail.compareAndSet(last, next); // Help a lagging enqueue
+            } else if (last.next.compareAndSet(null, node)) {
+                tail.compareAndSet(last, node);
+                size.incrementAndGet();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes the front element in the Queue
+     * @precondition !isEmpty()
+     * @throws NoSuchElementException when
+     * the precondition is violated
+     * @postcondition the front element has been removed
+     */
+    @Override
+    public void dequeue() throws NoSuchElementException {
+        if (poll() == null) {
+            throw new NoSuchElementException("dequeue(): Queue is empty!");
+        }
+    }
+
+    /**
+     * Removes and returns the front value in one atomic step, so no
+     * other consumer can take the same value.
+     * @return the value that was at the front, or null if the Queue
+     * was empty
+     */
+    public T poll() {
+        while (true) {
+            Node<T> dummy = head.get();
+            Node<T> last = tail.get();
+            Node<T> first = dummy.next.get();
+            if (dummy != head.get()) {
+                continue; // head moved while reading; start over
+            }
+            if (first == null) {
+                return null;
+            }
+            if (dummy == last) {
+                tail.compareAndSet(last, first); // Help a lagging enqueue
+            } else if (head.compareAndSet(dummy, first)) {
+                // first is now the dummy; drop its value for the GC
+                T data = first.data;
+                first.data = null;
+                size.decrementAndGet();
+                return data;
+            }
+        }
+    }
+
+    /**
+     * Inserts each value, in order, at the end of the Queue. The values
+     * are first linked into a private chain, which is then appended with
+     * a single compare-and-set, so they stay together even when other
+     * threads enqueue at the same time.
+     * @param values the values to insert
+     * @postcondition the values are at the end of the Queue
+     * @throws NullPointerException when a value is null
+     */
+    public void enqueueAll(Iterable<? extends T> values) throws NullPointerException {
+        Node<T> chainFirst = null;
+        Node<T> chainLast = null;
+        int count = 0;
+        for (T value : values) {
+            if (value == null) {
+                throw new NullPointerException("enqueueAll(): null values are not allowed!");
+            }
+            Node<T> node = new Node<>(value);
+            if (chainFirst == null) {
+                chainFirst = node;
+            } else {
+                chainLast.next.set(node);
+            }
+            chainLast = node;
+            count++;
+        }
+        if (chainFirst == null) {
+            return;
+        }
+        while (true) {
+            Node<T> last = tail.get();
+            Node<T> next = last.next.get();
+            if (last != tail.get()) {
+                continue;
+            }
+            if (next != null) {
+                tail.compareAndSet(last, next);
+            } else if (last.next.compareAndSet(null, chainFirst)) {
+                tail.compareAndSet(last, chainLast);
+                size.addAndGet(count);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes up to max values from the front of the Queue and adds
+     * them, in order, to a collection. The whole batch is detached
+     * with a single compare-and-set on head.
+     * @param target the collection receiving the values
+     * @param max the largest number of values to move
+     * @return the number of values moved
+     * @throws IllegalArgumentException when max < 0
+     */
+    public int drainTo(Collection<? super T> target, int max) throws IllegalArgumentException {
+        if (max < 0) {
+            throw new IllegalArgumentException("drainTo(): max cannot be negative!");
+        }
+        while (max > 0) {
+            Node<T> dummy = head.get();
+            Node<T> last = tail.get();
+            Node<T> end = dummy;
+            int count = 0;
+            // Find the last node of the batch, moving a lagging tail past
+            // each node on the way so head never overtakes it
+            while (count < max) {
+                Node<T> next = end.next.get();
+                if (next == null) {
+                    break;
+                }
+                if (end == last) {
+                    tail.compareAndSet(last, next);
+                    last = tail.get();
+                }
+                end = next;
+                count++;
+            }
+            if (count == 0) {
+                return 0;
+            }
+            if (head.compareAndSet(dummy, end)) {
+                // The batch is ours; end becomes the new dummy
+                for (Node<T> node = dummy.next.get(); node != end; node = node.next.get()) {
+                    target.add(node.data);
+                }
+                target.add(end.data);
+                end.data = null;
+                size.addAndGet(-count);
+                return count;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Removes up to n values from the front of the Queue, detaching
+     * the whole batch with a single compare-and-set
+     * @param n the largest number of values to remove
+     * @return the removed values in order, fewer than n when the
+     * Queue runs out
+     * @throws IllegalArgumentException when n < 0
+     */
+    public List<T> dequeueBatch(int n) throws IllegalArgumentException {
+        List<T> batch = new ArrayList<>(Math.min(Math.max(n, 0), getSize()));
+        drainTo(batch, n);
+        return batch;
+    }
+
+    /****ADDITIONAL OPERATIONS****/
+
+    /**
+     * Returns the values stored in the Queue
+     * as a String, separated by a blank space
+     * with a new line character at the end
+     * @return a String of Queue values
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Node<T> node = head.get().next.get(); node != null; node = node.next.get()) {
+            T data = node.data;
+            if (data != null) {
+                sb.append(data).append(" ");
+            }
+        }
+        sb.append("\n");
+        return sb.toString();
+    }
+}
@@ -4,26 +4,37 @@
  * CIS 22C, Applied Lab 3
  */
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
 
 
 public class CustomerInterface {
     public static void main(String[] args) {
         try {
-            BST<MutualFundAccount> accountsByValue = new BST<>();
-            BST<MutualFundAccount> accountsByName = new BST<>();
-            LinkedList<MutualFund> funds = new LinkedList<>();
+            Portfolio portfolio = new Portfolio();
             
-            // Read mutual funds from file
-            File file = new File("mutual_funds.txt");
-            Scanner input = new Scanner(file);
-            while(input.hasNextLine()) {
-                String name = input.nextLine();
-                String ticker = input.nextLine();
-                double sharePrice = Double.parseDouble(input.nextLine());
-                funds.addLast(new MutualFund(name, ticker, sharePrice));
+            // Read mutual funds from the binary catalog, or from the text file
+            Path text = Paths.get("mutual_funds.txt");
+            CatalogReloader funds = new CatalogReloader(
+                openCatalog(text, Paths.get("mutual_funds.bin")), text);
+
+            // The feed applies every price change, from the file or from
+            // live quotes: a tick file, or --port N
+            PriceFeed feed = new PriceFeed(funds, 5, TimeUnit.MILLISECONDS, 64);
+            funds.setPriceFeed(feed);
+            if (Files.exists(text)) {
+                funds.watch(); // Picks up edits to the file while running
+            }
+            if (args.length > 0) {
+                if (args[0].equals("--port") && args.length > 1) {
+                    feed.listen(Integer.parseInt(args[1]));
+                } else {
+                    feed.readFile(Paths.get(args[0]));
+                }
             }
-            input.close();
             
             Scanner scanner = new Scanner(System.in);
             String choice;
@@ -49,15 +60,16 @@ public class CustomerInterface {
                 
                 switch(choice) {
                     case "A":
-                        purchaseFund(funds, accountsByName, accountsByValue, scanner);
+                        // Each choice works on one version of the catalog
+                        purchaseFund(funds.current(), portfolio, scanner);
                         break;
                         
                     case "B":
-                        sellFund(accountsByName, accountsByValue, scanner);
+                        sellFund(funds.current(), portfolio, scanner);
                         break;
                         
                     case "C":
-                        displayFunds(accountsByName, accountsByValue, scanner);
+                        displayFunds(portfolio, scanner);
                         break;
                         
                     case "X":
@@ -71,6 +83,11 @@ public class CustomerInterface {
             } while(!choice.equals("X"));
             
             scanner.close();
+            funds.close();
+            feed.close();
+            if (args.length > 0) {
+                System.out.println("Price feed: " + feed.latencyReport());
+            }
         } catch (FileNotFoundException e) {
             System.out.println("Error: The file 'mutual_funds.txt' was not found.");
         } catch (Exception e) {
@@ -78,63 +95,91 @@ public class CustomerInterface {
         }
     }
     
-    private static void purchaseFund(LinkedList<MutualFund> funds, 
-                                  BST<MutualFundAccount> accountsByName, 
-                                  BST<MutualFundAccount> accountsByValue, 
+    // Opens the binary catalog when it is at least as new as the text
+    // file; otherwise loads the text file and rewrites the binary one
+    private static Catalog openCatalog(Path text, Path binary) throws IOException {
+        long start = System.nanoTime();
+        if (Files.exists(binary) && (!Files.exists(text)
+                || Files.getLastModifiedTime(binary).compareTo(Files.getLastModifiedTime(text)) >= 0)) {
+            try {
+                Catalog funds = BinaryCatalog.open(binary);
+                System.err.printf("Opened %d funds from %s in %.1f ms\n",
+                                  funds.getLength(), binary, (System.nanoTime() - start) / 1e6);
+                return funds;
+            } catch (IllegalArgumentException e) {
+                System.err.println(e.getMessage() + "; reloading " + text);
+            }
+        }
+        CatalogLoader loader = new CatalogLoader();
+        FundCatalog funds = loader.load(text);
+        System.err.println(loader.report());
+        try {
+            BinaryCatalog.write(funds, binary);
+        } catch (IOException e) {
+            System.err.println("Could not write " + binary + ": " + e.getMessage());
+        }
+        return funds;
+    }
+
+    private static void purchaseFund(Catalog funds, 
+                                  Portfolio portfolio, 
                                   Scanner scanner) {
     displayFundOptions(funds);
-    System.out.print("Enter your choice: (1-" + funds.getLength() + "): ");
-    int fundChoice = Integer.parseInt(scanner.next());
-    
-    if (fundChoice >= 1 && fundChoice <= funds.getLength()) {
-        System.out.print("\nEnter the number of shares to purchase: ");
-        double shares = Double.parseDouble(scanner.next());
-        
-        // Find the selected fund
-        funds.positionIterator();
-        for (int i = 1; i < fundChoice; i++) {
-            funds.advanceIterator();
+    System.out.print("Enter your choice: (1-" + funds.getLength() + " or a ticker): ");
+    String fundChoice = scanner.next();
+
+    // Find the selected fund by menu number or by ticker
+    MutualFund selectedFund = null;
+    if (fundChoice.chars().allMatch(Character::isDigit)) {
+        int position = Integer.parseInt(fundChoice);
+        if (position >= 1 && position <= funds.getLength()) {
+            selectedFund = funds.get(position - 1);
         }
-        MutualFund selectedFund = funds.getIterator();
+    } else {
+        selectedFund = funds.findByTicker(fundChoice);
+    }
 
-        // Check if account already exists
-        MutualFundAccount tempAccount = new MutualFundAccount(selectedFund);
-        MutualFundAccount existingAccount = accountsByName.search(tempAccount, new NameComparator());
+    if (selectedFund != null) {
+        System.out.print("\nEnter the number of shares to purchase: ");
+        double shares = Double.parseDouble(scanner.next());
 
-        if (existingAccount != null) {
-            // Update existing account shares
-            existingAccount.updateShares(shares);
+        if (shares > 0) {
+            // Adds to the existing account or opens a new one
+            portfolio.purchase(selectedFund, shares);
         } else {
-            // Create new account if it does not exist
-            MutualFundAccount newAccount = new MutualFundAccount(selectedFund, shares);
-            accountsByName.insert(newAccount, new NameComparator());
-            accountsByValue.insert(newAccount, new ValueComparator());
+            System.out.println("Invalid amount! Must be greater than 0.\n");
         }
     } else {
         System.out.println("Invalid choice!\n");
         }
     }
 
-    private static void sellFund(BST<MutualFundAccount> accountsByName, 
-                              BST<MutualFundAccount> accountsByValue, 
+    private static void sellFund(Catalog funds,
+                              Portfolio portfolio, 
                               Scanner scanner) {
-    if (accountsByName.isEmpty()) {
+    if (portfolio.isEmpty()) {
         System.out.println("You don't have any funds to sell at this time.\n");
         return;
     }
     
     System.out.print("You own the following mutual funds:");
-    System.out.print(accountsByName.inOrderString());
+    for (MutualFundAccount owned : portfolio.byName()) {
+        System.out.println(owned);
+    }
 
-    System.out.print("Enter the name of the fund to sell: ");
+    System.out.print("Enter the name or ticker of the fund to sell: ");
     scanner.nextLine(); // Consume newline
     String fundName = scanner.nextLine();
 
     System.out.print("Enter the number of shares to sell or \"all\" to sell everything: ");
     String sellAmount = scanner.next();
 
-    MutualFundAccount temp = new MutualFundAccount(new MutualFund(fundName));
-    MutualFundAccount account = accountsByName.search(temp, new NameComparator());
+    // Resolve the catalog fund, then find its account by the fund's name
+    MutualFund fund = funds.find(fundName);
+    if (fund == null) {
+        fund = findHeldFund(portfolio, fundName);
+    }
+    MutualFundAccount account = (fund == null) ? null : portfolio.getAccount(fund);
 
     if (account == null) {
         System.out.println("No account found for the fund: " + fundName + "\n");
@@ -161,26 +206,25 @@ public class CustomerInterface {
         System.out.println("You cannot sell more shares than you own.\n");
         return;
     } else {
-        // Update the number of shares
-        account.updateShares(-sharesToSell);
-        
-        // Check if shares are now zero
-        if (account.getNumShares() == 0) {
-            accountsByName.remove(account, new NameComparator());
-            accountsByValue.remove(account, new ValueComparator());
-        } else {
-            // Remove the account from both trees
-            accountsByName.remove(account, new NameComparator());
-            accountsByValue.remove(account, new ValueComparator());
-
-            // Re-insert the updated account to both trees
-            accountsByName.insert(account, new NameComparator());
-            accountsByValue.insert(account, new ValueComparator());
-        }
+        // Closes the account when no shares are left
+        portfolio.sell(fund, sharesToSell);
     }
 }
-    private static void displayFunds(BST<MutualFundAccount> accountsByName, BST<MutualFundAccount> accountsByValue, Scanner scanner) {
-        if (accountsByName.isEmpty()) {
+    // Finds a held fund by ticker or name, for funds a reload has
+    // taken out of the catalog
+    private static MutualFund findHeldFund(Portfolio portfolio, String query) {
+        for (MutualFundAccount account : portfolio.byName()) {
+            MutualFund fund = account.getMf();
+            if (FundCatalog.normalizeTicker(fund.getTicker()).equals(FundCatalog.normalizeTicker(query))
+                    || FundCatalog.normalizeName(fund.getFundName()).equals(FundCatalog.normalizeName(query))) {
+                return fund;
+            }
+        }
+        return null;
+    }
+
+    private static void displayFunds(Portfolio portfolio, Scanner scanner) {
+        if (portfolio.isEmpty()) {
             System.out.println("You don't have any funds to display at this time.\n");
         } else {
             System.out.println("View Your Mutual Funds By:\n");
@@ -190,27 +234,28 @@ public class CustomerInterface {
             String displayChoice = scanner.next();
             
             if (displayChoice.equals("1")) {
-                System.out.print(accountsByName.inOrderString()); // Ascending by name
+                printAccounts(portfolio.byName()); // Ascending by name
             } else if (displayChoice.equals("2")) {
-                System.out.print(accountsByValue.inOrderString()); // Ascending by value
+                printAccounts(portfolio.byValue()); // Ascending by value
             } else {
                 System.out.println("Invalid Choice!\n");
             }
         }
     }
     
-    private static void displayFundOptions(LinkedList<MutualFund> funds) {
+    private static void printAccounts(Iterable<MutualFundAccount> accounts) {
+        for (MutualFundAccount account : accounts) {
+            System.out.println(account);
+        }
+    }
+
+    private static void displayFundOptions(Catalog funds) {
         System.out.println("Please select from the options below:\n");
         int count = 1;
-        funds.positionIterator();
-        
-        while (!funds.offEnd()) {
-            MutualFund fund = funds.getIterator();
-            // Assuming MutualFund has getName(), getTicker(), and getSharePrice() methods
+        for (MutualFund fund : funds) {
             System.out.printf("%d. %s\n%s\nShare Price: $%.2f\n", 
                               count, fund.getFundName(), fund.getTicker(), fund.getPricePerShare());
             count++;
-            funds.advanceIterator();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,275 @@
+/**
+ * FundCatalog.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 3
+ */
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * The list of funds offered to customers, in menu order, with two hash
+ * indexes over it: one by ticker and one by normalized fund name. Both
+ * indexes use open addressing with linear probing in flat arrays, so a
+ * lookup costs one hash and a short scan of neighboring slots, with no
+ * entry objects and no placeholder MutualFund to search with.
+ */
+public class FundCatalog implements Catalog {
+    /**
+     * String-keyed hash table with open addressing. Keys and values sit
+     * in parallel arrays at the same slot, and the table doubles before
+     * it is half full, which keeps probe sequences short.
+     */
+    private static final class OpenHashIndex {
+        private String[] keys;
+        private MutualFund[] values;
+        private int size;
+
+        public OpenHashIndex(int expected) {
+            int capacity = 8;
+            while (capacity < expected * 2) {
+                capacity <<= 1;
+            }
+            keys = new String[capacity];
+            values = new MutualFund[capacity];
+            size = 0;
+        }
+
+        /**
+         * Returns the fund stored under a key.
+         * @param key the normalized key.
+         * @return the fund, or null if there is none.
+         */
+        public MutualFund get(String key) {
+            int mask = keys.length - 1;
+            for (int slot = spread(key.hashCode()) & mask; keys[slot] != null;
+                    slot = (slot + 1) & mask) {
+                if (keys[slot].equals(key)) {
+                    return values[slot];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Stores a fund under a key that is not yet in the table.
+         * @param key the normalized key.
+         * @param fund the fund to store.
+         */
+        public void put(String key, MutualFund fund) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int slot = spread(key.hashCode()) & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = fund;
+            size++;
+        }
+
+        /**
+         * Doubles the table and reinserts every entry.
+         */
+        private void resize() {
+            String[] oldKeys = keys;
+            MutualFund[] oldValues = values;
+            keys = new String[oldKeys.length * 2];
+            values = new MutualFund[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    int slot = spread(oldKeys[i].hashCode()) & mask;
+                    while (keys[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        /**
+         * Mixes the high bits of a hash into the low bits used as index.
+         * @param hash the String hash code.
+         * @return the spread hash.
+         */
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+
+    private final IndexedList<MutualFund> funds;
+    private final OpenHashIndex byTicker;
+    private final OpenHashIndex byName;
+    private int version;
+
+    /****CONSTRUCTORS****/
+
+    /**
+     * Creates an empty catalog.
+     */
+    public FundCatalog() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty catalog with index room for a number of funds.
+     * @param expected the number of funds expected.
+     */
+    public FundCatalog(int expected) {
+        this.funds = new IndexedList<>();
+        this.byTicker = new OpenHashIndex(expected);
+        this.byName = new OpenHashIndex(expected);
+    }
+
+    /****ACCESSORS****/
+
+    /**
+     * Returns the number of funds in the catalog.
+     * @return the number of funds.
+     */
+    @Override
+    public int getLength() {
+        return funds.getLength();
+    }
+
+    /**
+     * Returns the number of funds added so far, which changes with
+     * every add.
+     * @return the catalog's version.
+     */
+    @Override
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Determines whether the catalog is empty.
+     * @return whether there are no funds.
+     */
+    @Override
+    public boolean isEmpty() {
+        return funds.isEmpty();
+    }
+
+    /**
+     * Returns the fund at a menu position in O(1).
+     * @param index the position, from 0 to getLength() - 1.
+     * @return the fund at that position.
+     * @throws IndexOutOfBoundsException when the index is out of bounds.
+     */
+    @Override
+    public MutualFund get(int index) throws IndexOutOfBoundsException {
+        return funds.get(index);
+    }
+
+    /**
+     * Looks up a fund by ticker symbol, ignoring case and surrounding
+     * whitespace.
+     * @param ticker the ticker symbol.
+     * @return the fund, or null if no fund has that ticker.
+     */
+    @Override
+    public MutualFund findByTicker(String ticker) {
+        return (ticker == null) ? null : byTicker.get(normalizeTicker(ticker));
+    }
+
+    /**
+     * Looks up a fund by name, ignoring case and differences in spacing.
+     * @param name the fund name.
+     * @return the fund, or null if no fund has that name.
+     */
+    @Override
+    public MutualFund findByName(String name) {
+        return (name == null) ? null : byName.get(normalizeName(name));
+    }
+
+    /**
+     * Looks up a fund by ticker, falling back to its name.
+     * @param query a ticker symbol or a fund name.
+     * @return the fund, or null if none matches.
+     */
+    @Override
+    public MutualFund find(String query) {
+        MutualFund fund = findByTicker(query);
+        return (fund != null) ? fund : findByName(query);
+    }
+
+    /****MUTATORS****/
+
+    /**
+     * Adds a fund at the end of the menu and indexes it.
+     * @param fund the fund to add.
+     * @throws IllegalArgumentException when another fund already has
+     * the same ticker or name.
+     */
+    public void add(MutualFund fund) throws IllegalArgumentException {
+        String ticker = normalizeTicker(fund.getTicker());
+        String name = normalizeName(fund.getFundName());
+        if (byTicker.get(ticker) != null) {
+            throw new IllegalArgumentException("Duplicate ticker: " + fund.getTicker());
+        }
+        if (byName.get(name) != null) {
+            throw new IllegalArgumentException("Duplicate fund name: " + fund.getFundName());
+        }
+        funds.addLast(fund);
+        byTicker.put(ticker, fund);
+        byName.put(name, fund);
+        version++;
+    }
+
+    /****ADDITIONAL OPERATIONS****/
+
+    /**
+     * Returns an iterator over the funds in menu order.
+     * @return an iterator over the funds.
+     */
+    @Override
+    public Iterator<MutualFund> iterator() {
+        return funds.iterator();
+    }
+
+    /**
+     * Returns a sequential Stream over the funds in menu order.
+     * @return a Stream of the funds.
+     */
+    @Override
+    public Stream<MutualFund> stream() {
+        return funds.stream();
+    }
+
+    /**
+     * Normalizes a ticker symbol: trimmed and upper case.
+     * @param ticker the ticker symbol.
+     * @return the index key for the ticker.
+     */
+    public static String normalizeTicker(String ticker) {
+        return ticker.trim().toUpperCase();
+    }
+
+    /**
+     * Normalizes a fund name: trimmed, runs of whitespace collapsed to a
+     * single space, and lower case.
+     * @param name the fund name.
+     * @return the index key for the name.
+     */
+    public static String normalizeName(String name) {
+        StringBuilder key = new StringBuilder(name.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = key.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    key.append(' ');
+                    pendingSpace = false;
+                }
+                key.append(Character.toLowerCase(c));
+            }
+        }
+        return key.toString();
+    }
+}
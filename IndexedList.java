@@ -0,0 +1,942 @@
+/**
+ * IndexedList.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 3
+ */
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A list with the operations of LinkedList plus fast positional access.
+ * Elements are kept in blocks of blockSize slots, each a small circular
+ * buffer. Every block except the first and the last is full, so the block
+ * and offset of an index are found with one division: get(i) is O(1).
+ * Inserting or removing in the middle shifts elements inside one block and
+ * moves one element across each block between it and the nearer end of the
+ * list, which is O(blockSize + number of blocks) = O(sqrt(n)) because
+ * blockSize grows with the square root of the length. addFirst and addLast
+ * only touch the end blocks and are O(1) amortized.
+ * @param <T> the generic data stored in the list
+ */
+public class IndexedList<T> implements Iterable<T> {
+    private static final class Block {
+        private final Object[] items;
+        private int head;
+        private int count;
+
+        public Block(int capacity) {
+            items = new Object[capacity];
+            head = 0;
+            count = 0;
+        }
+
+        private int slot(int offset) {
+            return (head + offset) & (items.length - 1);
+        }
+
+        public boolean isFull() {
+            return count == items.length;
+        }
+
+        public Object get(int offset) {
+            return items[slot(offset)];
+        }
+
+        public void pushFront(Object data) {
+            head = (head - 1) & (items.length - 1);
+            items[head] = data;
+            count++;
+        }
+
+        public void pushBack(Object data) {
+            items[slot(count)] = data;
+            count++;
+        }
+
+        public Object popFront() {
+            Object data = items[head];
+            items[head] = null;
+            head = (head + 1) & (items.length - 1);
+            count--;
+            return data;
+        }
+
+        public Object popBack() {
+            int last = slot(count - 1);
+            Object data = items[last];
+            items[last] = null;
+            count--;
+            return data;
+        }
+
+        /**
+         * Inserts at an offset, shifting whichever side is shorter.
+         * @precondition !isFull(), 0 <= offset <= count
+         */
+        public void insert(int offset, Object data) {
+            if (offset < count - offset) {
+                head = (head - 1) & (items.length - 1);
+                for (int i = 0; i < offset; i++) {
+                    items[slot(i)] = items[slot(i + 1)];
+                }
+            } else {
+                for (int i = count; i > offset; i--) {
+                    items[slot(i)] = items[slot(i - 1)];
+                }
+            }
+            items[slot(offset)] = data;
+            count++;
+        }
+
+        /**
+         * Removes at an offset, shifting whichever side is shorter.
+         * @precondition 0 <= offset < count
+         */
+        public void remove(int offset) {
+            if (offset < count - 1 - offset) {
+                for (int i = offset; i > 0; i--) {
+                    items[slot(i)] = items[slot(i - 1)];
+                }
+                items[head] = null;
+                head = (head + 1) & (items.length - 1);
+            } else {
+                for (int i = offset; i < count - 1; i++) {
+                    items[slot(i)] = items[slot(i + 1)];
+                }
+                items[slot(count - 1)] = null;
+            }
+            count--;
+        }
+    }
+
+    private static final int MIN_BLOCK_SHIFT = 6;
+
+    private Block[] blocks;
+    private int firstBlock;
+    private int blockCount;
+    private int blockShift;
+    private int length;
+    private int iterator;
+    private int modCount;
+
+    /**** CONSTRUCTORS ****/
+
+    /**
+     * Instantiates a new IndexedList with default values
+     * @postcondition A new empty IndexedList is created
+     */
+    public IndexedList() {
+        blocks = new Block[4];
+        firstBlock = 0;
+        blockCount = 0;
+        blockShift = MIN_BLOCK_SHIFT;
+        length = 0;
+        iterator = -1;
+        modCount = 0;
+    }
+
+    /**
+     * Converts the given array into an IndexedList
+     * @param array the array of values to insert into this IndexedList
+     * @postcondition The array elements are added to the IndexedList in order
+     */
+    public IndexedList(T[] array) {
+        this();
+        if (array == null) {
+            return;
+        }
+        for (T element : array) {
+            addLast(element);
+        }
+    }
+
+    /**
+     * Instantiates a new IndexedList by copying another one
+     * @param original the IndexedList to copy
+     * @postcondition a new list, which is an identical,
+     * but separate, copy of original
+     */
+    public IndexedList(IndexedList<T> original) {
+        this();
+        if (original != null) {
+            for (int i = 0; i < original.length; i++) {
+                addLast(original.get(i));
+            }
+        }
+    }
+
+    /**** ACCESSORS ****/
+
+    /**
+     * Returns the value stored at the front of the list
+     * @precondition list must not be empty
+     * @return the first value
+     * @throws NoSuchElementException if the list is empty
+     */
+    public T getFirst() throws NoSuchElementException {
+        if (length == 0) {
+            throw new NoSuchElementException("The IndexedList is empty.");
+        }
+        return get(0);
+    }
+
+    /**
+     * Returns the value stored at the end of the list
+     * @precondition list must not be empty
+     * @return the last value
+     * @throws NoSuchElementException if the list is empty
+     */
+    public T getLast() throws NoSuchElementException {
+        if (length == 0) {
+            throw new NoSuchElementException("The IndexedList is empty.");
+        }
+        return get(length - 1);
+    }
+
+    /**
+     * Returns the value at the given position in O(1)
+     * @param index the position of the value, from 0 to length - 1
+     * @return the value at index
+     * @throws IndexOutOfBoundsException when the index is out of bounds
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index) throws IndexOutOfBoundsException {
+        checkIndex(index, length);
+        Block first = block(0);
+        if (index < first.count) {
+            return (T) first.get(index);
+        }
+        int rest = index - first.count;
+        return (T) block(1 + (rest >>> blockShift)).get(rest & (blockSize() - 1));
+    }
+
+    /**
+     * Returns the data at the iterator's position
+     * @precondition Iterator must not be off end
+     * @return the data at the iterator's position
+     * @throws NullPointerException if the iterator is off end
+     */
+    public T getIterator() throws NullPointerException {
+        if (iterator == -1) {
+            throw new NullPointerException("Iterator is off end.");
+        }
+        return get(iterator);
+    }
+
+    /**
+     * Returns the current length of the list
+     * @return the length of the list from 0 to n
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns whether the list is currently empty
+     * @return whether the list is empty
+     */
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * Returns whether the iterator is off end
+     * @return whether the iterator is off end
+     */
+    public boolean offEnd() {
+        return iterator == -1;
+    }
+
+    /**** MUTATORS ****/
+
+    /**
+     * Inserts a new first element
+     * @param data the data to insert at the front of the list
+     * @postcondition A new element is added to the front of the list
+     */
+    public void addFirst(T data) {
+        if (blockCount == 0 || block(0).isFull()) {
+            addBlock(true);
+        }
+        block(0).pushFront(data);
+        length++;
+        modCount++;
+        if (iterator != -1) {
+            iterator++;
+        }
+        growBlocksIfNeeded();
+    }
+
+    /**
+     * Inserts a new last element
+     * @param data the data to insert at the end of the list
+     * @postcondition A new element is added to the end of the list
+     */
+    public void addLast(T data) {
+        if (blockCount == 0 || block(blockCount - 1).isFull()) {
+            addBlock(false);
+        }
+        block(blockCount - 1).pushBack(data);
+        length++;
+        modCount++;
+        growBlocksIfNeeded();
+    }
+
+    /**
+     * Inserts an element at the given position in O(sqrt(n)), shifting
+     * the elements at and after that position back by one
+     * @param index the position of the new element, from 0 to length
+     * @param data the data to insert
+     * @throws IndexOutOfBoundsException when the index is out of bounds
+     */
+    public void insertAt(int index, T data) throws IndexOutOfBoundsException {
+        checkIndex(index, length + 1);
+        if (index == 0) {
+            addFirst(data);
+            return;
+        }
+        if (index == length) {
+            addLast(data);
+            return;
+        }
+        int k = blockOf(index);
+        int offset = offsetOf(index, k);
+        Block target = block(k);
+        if (!target.isFull()) {
+            target.insert(offset, data);
+        } else if (k < blockCount / 2) {
+            // Push one element from each block towards the front
+            Object carry = data;
+            if (offset > 0) {
+                carry = target.popFront();
+                target.insert(offset - 1, data);
+            }
+            boolean carrying = true;
+            for (int j = k - 1; j >= 0 && carrying; j--) {
+                Block previous = block(j);
+                carrying = previous.isFull();
+                Object next = carrying ? previous.popFront() : null;
+                previous.pushBack(carry);
+                carry = next;
+            }
+            if (carrying) {
+                addBlock(true);
+                block(0).pushBack(carry);
+            }
+        } else {
+            // Push one element from each block towards the back
+            Object carry = target.popBack();
+            target.insert(offset, data);
+            boolean carrying = true;
+            for (int j = k + 1; j < blockCount && carrying; j++) {
+                Block following = block(j);
+                carrying = following.isFull();
+                Object next = carrying ? following.popBack() : null;
+                following.pushFront(carry);
+                carry = next;
+            }
+            if (carrying) {
+                addBlock(false);
+                block(blockCount - 1).pushBack(carry);
+            }
+        }
+        length++;
+        modCount++;
+        if (iterator >= index) {
+            iterator++;
+        }
+        growBlocksIfNeeded();
+    }
+
+    /**
+     * removes the element at the front of the list
+     * @precondition list must not be empty
+     * @postcondition The first element is removed from the list
+     * @throws NoSuchElementException if the list is empty
+     */
+    public void removeFirst() throws NoSuchElementException {
+        if (length == 0) {
+            throw new NoSuchElementException("The IndexedList is empty.");
+        }
+        block(0).popFront();
+        if (block(0).count == 0) {
+            removeBlock(true);
+        }
+        length--;
+        modCount++;
+        iterator = (iterator <= 0) ? -1 : iterator - 1;
+    }
+
+    /**
+     * removes the element at the end of the list
+     * @precondition list must not be empty
+     * @postcondition The last element is removed from the list
+     * @throws NoSuchElementException if the list is empty
+     */
+    public void removeLast() throws NoSuchElementException {
+        if (length == 0) {
+            throw new NoSuchElementException("The IndexedList is empty.");
+        }
+        block(blockCount - 1).popBack();
+        if (block(blockCount - 1).count == 0) {
+            removeBlock(false);
+        }
+        length--;
+        modCount++;
+        if (iterator == length) {
+            iterator = -1;
+        }
+    }
+
+    /**
+     * Removes the element at the given position in O(sqrt(n)), shifting
+     * the elements after it forward by one
+     * @param index the position of the element, from 0 to length - 1
+     * @throws IndexOutOfBoundsException when the index is out of bounds
+     */
+    public void removeAt(int index) throws IndexOutOfBoundsException {
+        checkIndex(index, length);
+        if (index == 0) {
+            removeFirst();
+            return;
+        }
+        if (index == length - 1) {
+            removeLast();
+            return;
+        }
+        int k = blockOf(index);
+        block(k).remove(offsetOf(index, k));
+        if (k == 0 || k == blockCount - 1) {
+            // End blocks may be partly filled, but never empty
+            if (block(k).count == 0) {
+                removeBlock(k == 0);
+            }
+        } else if (k < blockCount / 2) {
+            // Refill from the front: each block passes its last element on
+            for (int j = k; j > 0; j--) {
+                block(j).pushFront(block(j - 1).popBack());
+            }
+            if (block(0).count == 0) {
+                removeBlock(true);
+            }
+        } else {
+            // Refill from the back: each block passes its first element on
+            for (int j = k; j < blockCount - 1; j++) {
+                block(j).pushBack(block(j + 1).popFront());
+            }
+            if (block(blockCount - 1).count == 0) {
+                removeBlock(false);
+            }
+        }
+        length--;
+        modCount++;
+        if (iterator == index) {
+            iterator = -1;
+        } else if (iterator > index) {
+            iterator--;
+        }
+    }
+
+    /**
+     * Inserts an element after the iterator
+     * @param data the data to insert after the iterator
+     * @postcondition A new element is added after the iterator
+     * @throws NullPointerException if the iterator is off end
+     */
+    public void addIterator(T data) throws NullPointerException {
+        if (iterator == -1) {
+            throw new NullPointerException("Iterator is off end.");
+        }
+        insertAt(iterator + 1, data);
+    }
+
+    /**
+     * Removes the element at the iterator and sets the iterator off end
+     * @precondition Iterator must not be off end
+     * @postcondition The iterator is off end and the element is removed
+     * @throws NullPointerException if the iterator is off end
+     */
+    public void removeIterator() throws NullPointerException {
+        if (iterator == -1) {
+            throw new NullPointerException("Iterator is off end.");
+        }
+        removeAt(iterator);
+        iterator = -1;
+    }
+
+    /**** ITERATOR OPERATIONS ****/
+
+    /**
+     * Positions the iterator at the start of the list
+     * @postcondition Iterator is at the first element
+     */
+    public void positionIterator() {
+        iterator = (length == 0) ? -1 : 0;
+    }
+
+    /**
+     * Moves the iterator one position forward in the list
+     * @precondition Iterator must not be off end
+     * @postcondition Iterator moves one step forward
+     * @throws NullPointerException if the iterator is off end
+     */
+    public void advanceIterator() throws NullPointerException {
+        if (iterator == -1) {
+            throw new NullPointerException("Iterator is off end.");
+        }
+        iterator = (iterator == length - 1) ? -1 : iterator + 1;
+    }
+
+    /**
+     * Moves the iterator one position back in the list
+     * @precondition Iterator must not be off end
+     * @postcondition Iterator moves one step backward
+     * @throws NullPointerException if the iterator is off end
+     */
+    public void reverseIterator() throws NullPointerException {
+        if (iterator == -1) {
+            throw new NullPointerException("Iterator is off end.");
+        }
+        iterator--;
+    }
+
+    /**
+     * Moves the iterator to the given position in O(1)
+     * @param index the index at which to place the iterator
+     * @precondition index >= 0, index < length
+     * @throws IndexOutOfBoundsException when the index is out of bounds
+     */
+    public void advanceIteratorToIndex(int index) throws IndexOutOfBoundsException {
+        checkIndex(index, length);
+        iterator = index;
+    }
+
+    /**** CURSORS ****/
+
+    /**
+     * Returns an iterator over the data from first to last. Each call
+     * gets its own cursor, independent of the internal iterator. The list
+     * must not be structurally modified while the iterator is in use.
+     * @return an iterator from the first to the last element.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int next = 0;
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return next < length;
+            }
+
+            @Override
+            public T next() throws NoSuchElementException {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException("List was modified.");
+                }
+                if (next >= length) {
+                    throw new NoSuchElementException("No more elements.");
+                }
+                return get(next++);
+            }
+        };
+    }
+
+    /**
+     * Returns a Spliterator over the data from first to last. Since
+     * get(i) is O(1), it splits by halving its index range, so parallel
+     * streams divide the list into exactly sized parts without copying.
+     * @return a sized, ordered, splittable Spliterator.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new RangeSpliterator(0, length);
+    }
+
+    /**
+     * Returns a sequential Stream over the data from first to last.
+     * @return a Stream of the data.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel Stream over the data from first to last.
+     * @return a parallel Stream of the data.
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Spliterator over the index range [index, fence).
+     */
+    private class RangeSpliterator implements Spliterator<T> {
+        private int index;
+        private final int fence;
+        private final int expectedModCount;
+
+        public RangeSpliterator(int index, int fence) {
+            this.index = index;
+            this.fence = fence;
+            this.expectedModCount = modCount;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int middle = (index + fence) >>> 1;
+            if (middle <= index) {
+                return null;
+            }
+            RangeSpliterator prefix = new RangeSpliterator(index, middle);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException("List was modified.");
+            }
+            if (index >= fence) {
+                return false;
+            }
+            action.accept(get(index++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            for (; index < fence; index++) {
+                action.accept(get(index));
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException("List was modified.");
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+
+    /**** ADDITIONAL OPERATIONS ****/
+
+    /**
+     * Re-sets the list to empty as if the
+     * default constructor had just been called
+     */
+    public void clear() {
+        blocks = new Block[4];
+        firstBlock = 0;
+        blockCount = 0;
+        blockShift = MIN_BLOCK_SHIFT;
+        length = 0;
+        iterator = -1;
+        modCount++;
+    }
+
+    /**
+     * Searches the list for a given element's index.
+     * @param data the data whose index to locate.
+     * @return the index of the data or -1 if the data is not contained
+     * in the list.
+     */
+    public int findIndex(T data) {
+        int index = 0;
+        for (int k = 0; k < blockCount; k++) {
+            Block current = block(k);
+            for (int i = 0; i < current.count; i++) {
+                Object element = current.get(i);
+                if ((data == null && element == null)
+                        || (data != null && data.equals(element))) {
+                    return index;
+                }
+                index++;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Converts the list to a String, with each value separated by a blank
+     * space. At the end of the String, place a new line character
+     * @return the list as a String
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            result.append(get(i) + " ");
+        }
+        return result.toString() + "\n";
+    }
+
+    /**
+     * Determines whether the given Object is another IndexedList,
+     * containing the same data in the same order
+     * @param obj another Object
+     * @return whether there is equality
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof IndexedList)) {
+            return false;
+        }
+        IndexedList<?> other = (IndexedList<?>) obj;
+        if (length != other.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            Object mine = get(i);
+            Object theirs = other.get(i);
+            if (mine == null ? theirs != null : !mine.equals(theirs)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash code consistent with equals
+     * @return a hash of the elements in order
+     */
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < length; i++) {
+            Object element = get(i);
+            hash = 31 * hash + (element == null ? 0 : element.hashCode());
+        }
+        return hash;
+    }
+
+    /**
+     * Returns each element in the list along with its
+     * numerical position from 1 to n, followed by a newline.
+     * @return the numbered list elements as a String.
+     */
+    public String numberedListString() {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            result.append(i + 1).append(". ").append(get(i)).append("\n");
+        }
+        return result.append("\n").toString();
+    }
+
+    /**** CHALLENGE METHODS ****/
+
+    /**
+     * Moves all elements in the list towards the end
+     * of the list the number of times specified
+     * Any element that falls off the end of the list as it
+     * moves forward will be placed the front of the list
+     * For example: [1, 2, 3, 4, 5], numMoves = 2 -> [4, 5, 1, 2 ,3]
+     * Elements are moved one at a time from whichever end is shorter,
+     * so a spin costs O(min(numMoves, n - numMoves)).
+     * @param numMoves the number of times to move each element.
+     * @precondition numMoves >= 0
+     * @postcondition iterator position unchanged (i.e. still referencing
+     * the same element in the list, regardless of its new location)
+     * @throws IllegalArgumentException when numMoves < 0
+     */
+    public void spinList(int numMoves) throws IllegalArgumentException {
+        if (numMoves < 0) {
+            throw new IllegalArgumentException("numMoves cannot be negative.");
+        }
+        if (length <= 1 || numMoves % length == 0) {
+            return;
+        }
+        numMoves = numMoves % length;
+        if (numMoves <= length - numMoves) {
+            for (int i = 0; i < numMoves; i++) {
+                Object data = block(blockCount - 1).popBack();
+                if (block(blockCount - 1).count == 0) {
+                    removeBlock(false);
+                }
+                if (block(0).isFull()) {
+                    addBlock(true);
+                }
+                block(0).pushFront(data);
+            }
+        } else {
+            for (int i = 0; i < length - numMoves; i++) {
+                Object data = block(0).popFront();
+                if (block(0).count == 0) {
+                    removeBlock(true);
+                }
+                if (block(blockCount - 1).isFull()) {
+                    addBlock(false);
+                }
+                block(blockCount - 1).pushBack(data);
+            }
+        }
+        if (iterator != -1) {
+            iterator = (iterator + numMoves) % length;
+        }
+        modCount++;
+    }
+
+    /**
+     * Splices together two IndexedLists to create a third List
+     * which contains alternating values from this list
+     * and the given parameter
+     * For example: [1,2,3] and [4,5,6] -> [1,4,2,5,3,6]
+     * For example: [1, 2, 3, 4] and [5, 6] -> [1, 5, 2, 6, 3, 4]
+     * For example: [1, 2] and [3, 4, 5, 6] -> [1, 3, 2, 4, 5, 6]
+     * @param list the second IndexedList
+     * @return a new IndexedList, which is the result of
+     * alternating this and list
+     * @postcondition this and list are unchanged
+     */
+    public IndexedList<T> altLists(IndexedList<T> list) {
+        if (list == null) {
+            return new IndexedList<>(this);
+        }
+        IndexedList<T> result = new IndexedList<>();
+        for (int i = 0; i < length || i < list.length; i++) {
+            if (i < length) {
+                result.addLast(get(i));
+            }
+            if (i < list.length) {
+                result.addLast(list.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**** HELPERS ****/
+
+    /**
+     * Returns the number of slots in each block.
+     * @return the block size, a power of two.
+     */
+    private int blockSize() {
+        return 1 << blockShift;
+    }
+
+    /**
+     * Returns the k-th block from the front.
+     * @param k the position of the block.
+     * @return the block.
+     */
+    private Block block(int k) {
+        return blocks[(firstBlock + k) & (blocks.length - 1)];
+    }
+
+    /**
+     * Finds the block holding an index.
+     * @param index a valid index.
+     * @return the position of the block.
+     */
+    private int blockOf(int index) {
+        int firstCount = block(0).count;
+        return (index < firstCount) ? 0 : 1 + ((index - firstCount) >>> blockShift);
+    }
+
+    /**
+     * Finds the offset of an index inside its block.
+     * @param index a valid index.
+     * @param k the position of the block holding it.
+     * @return the offset inside the block.
+     */
+    private int offsetOf(int index, int k) {
+        return (k == 0) ? index : (index - block(0).count) & (blockSize() - 1);
+    }
+
+    /**
+     * Adds an empty block at either end, doubling the ring of
+     * blocks when it is full.
+     * @param atFront whether to add the block at the front.
+     */
+    private void addBlock(boolean atFront) {
+        if (blockCount == blocks.length) {
+            Block[] larger = new Block[blocks.length * 2];
+            for (int k = 0; k < blockCount; k++) {
+                larger[k] = block(k);
+            }
+            blocks = larger;
+            firstBlock = 0;
+        }
+        if (atFront) {
+            firstBlock = (firstBlock - 1) & (blocks.length - 1);
+        }
+        blocks[(firstBlock + (atFront ? 0 : blockCount)) & (blocks.length - 1)]
+            = new Block(blockSize());
+        blockCount++;
+    }
+
+    /**
+     * Drops the empty block at either end.
+     * @param atFront whether to drop the block at the front.
+     */
+    private void removeBlock(boolean atFront) {
+        int k = atFront ? 0 : blockCount - 1;
+        blocks[(firstBlock + k) & (blocks.length - 1)] = null;
+        if (atFront) {
+            firstBlock = (firstBlock + 1) & (blocks.length - 1);
+        }
+        blockCount--;
+    }
+
+    /**
+     * Doubles the block size once the list holds more than four times
+     * its square, copying the elements into fewer, larger blocks so
+     * both shifting inside a block and walking across blocks stay
+     * O(sqrt(n)).
+     */
+    private void growBlocksIfNeeded() {
+        if (length <= (4L << (2 * blockShift))) {
+            return;
+        }
+        Block[] old = blocks;
+        int oldFirst = firstBlock;
+        int oldCount = blockCount;
+        blockShift++;
+        int needed = (length >>> blockShift) + 1;
+        int capacity = 4;
+        while (capacity < needed) {
+            capacity *= 2;
+        }
+        blocks = new Block[capacity];
+        firstBlock = 0;
+        blockCount = 0;
+        for (int k = 0; k < oldCount; k++) {
+            Block current = old[(oldFirst + k) & (old.length - 1)];
+            for (int i = 0; i < current.count; i++) {
+                if (blockCount == 0 || block(blockCount - 1).isFull()) {
+                    addBlock(false);
+                }
+                block(blockCount - 1).pushBack(current.get(i));
+            }
+        }
+    }
+
+    /**
+     * Checks that an index lies in [0, bound).
+     * @param index the index to check.
+     * @param bound the exclusive upper bound.
+     * @throws IndexOutOfBoundsException when the index is out of bounds
+     */
+    private void checkIndex(int index, int bound) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+    }
+}
@@ -2,9 +2,15 @@
  * Defines a doubly-linked list class
  * @author Minh Long Hang
  */
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public class LinkedList<T> {
+public class LinkedList<T> implements Iterable<T> {
     private class Node {
         private T data;
         private Node next;
@@ -21,6 +27,7 @@ public class LinkedList<T> {
     private Node first;
     private Node last;
     private Node iterator;
+    private int modCount;
 
     /**** CONSTRUCTORS ****/
 
@@ -33,6 +40,7 @@ public class LinkedList<T> {
         last = null;
         iterator = null;
         length = 0;
+        modCount = 0;
     }
 
     /**
@@ -154,6 +162,7 @@ public class LinkedList<T> {
             first = newNode;
         }
         length++;
+        modCount++;
     }
 
     /**
@@ -172,6 +181,7 @@ public class LinkedList<T> {
             last = newNode;
         }
         length++;
+        modCount++;
     }
 
     /**
@@ -189,6 +199,7 @@ public class LinkedList<T> {
             last = null;
             iterator = null;
             length = 0;
+            modCount++;
         } else {
             if (iterator == first) {
                 iterator = null;
@@ -196,6 +207,7 @@ public class LinkedList<T> {
             first = first.next;
             first.prev = null;
             length--;
+            modCount++;
         }
     }
 
@@ -214,6 +226,7 @@ public class LinkedList<T> {
             last = null;
             iterator = null;
             length = 0;
+            modCount++;
         } else {
             if (iterator == last) {
                 iterator = null;
@@ -221,6 +234,7 @@ public class LinkedList<T> {
             last = last.prev;
             last.next = null;
             length--;
+            modCount++;
         }
     }
 
@@ -245,6 +259,7 @@ public class LinkedList<T> {
             iterator.next.prev = newNode;
             iterator.next = newNode;
             length++;
+            modCount++;
         }
     }
 
@@ -267,6 +282,7 @@ public class LinkedList<T> {
             iterator.prev.next = iterator.next;
             iterator.next.prev = iterator.prev;
             length--;
+            modCount++;
         }
 
         iterator = null;
@@ -308,6 +324,80 @@ public class LinkedList<T> {
         iterator = iterator.prev;
     }
 
+    /**** CURSORS ****/
+
+    /**
+     * Returns an iterator over the data from first to last. Each call
+     * gets its own cursor, so several traversals can run at once without
+     * touching the internal iterator. The list must not be structurally
+     * modified while the iterator is in use.
+     * @return an iterator from the first to the last element.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new NodeIterator();
+    }
+
+    /**
+     * Returns a Spliterator over the data from first to last. A linked
+     * list cannot be split in the middle without walking to it, so
+     * splitting copies batches from the front into arrays, which parallel
+     * streams then process while the rest of the list is walked.
+     * @return a sized, ordered Spliterator.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(iterator(), length, Spliterator.ORDERED);
+    }
+
+    /**
+     * Returns a sequential Stream over the data from first to last.
+     * @return a Stream of the data.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel Stream over the data from first to last.
+     * @return a parallel Stream of the data.
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Iterator with its own node reference, independent of the internal
+     * iterator. It fails fast when the list changes underneath it.
+     */
+    private class NodeIterator implements Iterator<T> {
+        private Node next;
+        private final int expectedModCount;
+
+        public NodeIterator() {
+            this.next = first;
+            this.expectedModCount = modCount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public T next() throws NoSuchElementException {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException("List was modified.");
+            }
+            if (next == null) {
+                throw new NoSuchElementException("No more elements.");
+            }
+            T data = next.data;
+            next = next.next;
+            return data;
+        }
+    }
+
     /**** ADDITIONAL OPERATIONS ****/
 
      /**
@@ -319,6 +409,7 @@ public class LinkedList<T> {
         last = null;
         iterator = null;
         length = 0;
+        modCount++;
     }
 
     /**
@@ -430,6 +521,7 @@ public class LinkedList<T> {
         // Update first and last pointers
         first = newFirst;
         last = newLast;
+        modCount++;
     }
 
  /**
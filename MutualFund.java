@@ -4,11 +4,15 @@
  * CIS 22C, Applied Lab 3
  */
 import java.text.DecimalFormat;
+import java.util.Arrays;
 
 public class MutualFund {
-    private final String fundName;
-    private final String ticker;
-    private double pricePerShare;
+    private static final PriceListener[] NO_LISTENERS = new PriceListener[0];
+
+    private volatile String fundName;
+    private volatile String ticker;
+    private volatile double pricePerShare;
+    private volatile PriceListener[] listeners = NO_LISTENERS;
 
     /**CONSTRUCTORS*/
 
@@ -64,11 +68,93 @@ public class MutualFund {
     /**MUTATORS*/
 
     /**
-     * Updates the share price
+     * Updates the share price, notifying each PriceListener before
+     * and after the change. Listeners are notified while holding this
+     * fund's monitor, so a listener registering at the same time either
+     * sees the old price and is notified, or sees the new price
      * @param pricePerShare the new share price
      */
-    public void setPricePerShare(double pricePerShare) {
-        this.pricePerShare = pricePerShare;
+    public synchronized void setPricePerShare(double pricePerShare) {
+        double oldPrice = this.pricePerShare;
+        if (Double.compare(oldPrice, pricePerShare) == 0) {
+            return;
+        }
+        PriceListener[] notify = listeners;
+        int notified = 0;
+        try {
+            for (PriceListener listener : notify) {
+                listener.priceWillChange(this, pricePerShare);
+                notified++;
+            }
+            this.pricePerShare = pricePerShare;
+        } finally {
+            for (int i = 0; i < notified; i++) {
+                notify[i].priceChanged(this, oldPrice);
+            }
+        }
+    }
+
+    /**
+     * Gives the fund a new name and ticker, notifying each PriceListener
+     * before and after the change, as setPricePerShare does. Accounts
+     * that hold the fund keep holding this same object, so they follow
+     * its price under the new name
+     * @param fundName the new fund name
+     * @param ticker the new ticker symbol
+     */
+    public synchronized void rename(String fundName, String ticker) {
+        String oldName = this.fundName;
+        String oldTicker = this.ticker;
+        if (oldName.equals(fundName) && oldTicker.equals(ticker)) {
+            return;
+        }
+        PriceListener[] notify = listeners;
+        int notified = 0;
+        try {
+            for (PriceListener listener : notify) {
+                listener.fundWillRename(this, fundName, ticker);
+                notified++;
+            }
+            this.fundName = fundName;
+            this.ticker = ticker;
+        } finally {
+            for (int i = 0; i < notified; i++) {
+                notify[i].fundRenamed(this, oldName, oldTicker);
+            }
+        }
+    }
+
+    /**
+     * Registers a listener for price changes
+     * Note: does nothing when the listener is already registered
+     * @param listener the listener to add
+     */
+    public synchronized void addPriceListener(PriceListener listener) {
+        for (PriceListener registered : listeners) {
+            if (registered == listener) {
+                return;
+            }
+        }
+        PriceListener[] larger = Arrays.copyOf(listeners, listeners.length + 1);
+        larger[listeners.length] = listener;
+        listeners = larger;
+    }
+
+    /**
+     * Unregisters a listener for price changes
+     * Note: does nothing when the listener is not registered
+     * @param listener the listener to remove
+     */
+    public synchronized void removePriceListener(PriceListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                PriceListener[] smaller = new PriceListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, smaller, 0, i);
+                System.arraycopy(listeners, i + 1, smaller, i, smaller.length - i);
+                listeners = (smaller.length == 0) ? NO_LISTENERS : smaller;
+                return;
+            }
+        }
     }
 
     /**ADDITIONAL OPERATIONS*/
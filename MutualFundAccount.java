@@ -7,6 +7,11 @@ import java.text.DecimalFormat;
 import java.util.Comparator;
 
 public class MutualFundAccount {
+    /** Shared ordering by fund name. */
+    public static final Comparator<MutualFundAccount> BY_NAME = new NameComparator();
+    /** Shared ordering by total value. */
+    public static final Comparator<MutualFundAccount> BY_VALUE = new ValueComparator();
+
     private double numShares;
     private MutualFund mf;
 
@@ -81,13 +86,9 @@ public class MutualFundAccount {
     @Override
     public String toString() {
         DecimalFormat df = new DecimalFormat("#.0");
-        DecimalFormat ef = new DecimalFormat("#.00");
-        DecimalFormat gf = new DecimalFormat("#,###.00");
         double value = numShares * mf.getPricePerShare(); // Assumes MutualFund has a getPricePerShare() method
-        if(value >= 1000){
-            return mf.toString() + "\nTotal Shares: " + df.format(numShares) + "\nValue: $" + gf.format(value);
-        }
-        else{return mf.toString() + "\nTotal Shares: " + df.format(numShares) + "\nValue: $" + ef.format(value);}
+        DecimalFormat vf = new DecimalFormat(value >= 1000 ? "#,###.00" : "#.00");
+        return mf.toString() + "\nTotal Shares: " + df.format(numShares) + "\nValue: $" + vf.format(value);
     }
 }
 
@@ -95,13 +96,38 @@ class NameComparator implements Comparator<MutualFundAccount> {
     /**
      * Compares the two mutual fund accounts by name of the fund
      * uses the String compareTo method to make the comparison
+     * breaks ties on the ticker, so a fund taken out of the catalog
+     * and a new fund with the same name have separate accounts
      * @param account1 the first MutualFundAccount
      * @param account2 the second MutualFundAccount
      * @return The comparison.
      */
     @Override
     public int compare(MutualFundAccount account1, MutualFundAccount account2) {
-        return account1.getMf().getFundName().compareTo(account2.getMf().getFundName());
+        int comparison = account1.getMf().getFundName().compareTo(account2.getMf().getFundName());
+        if (comparison != 0) {
+            return comparison;
+        }
+        return account1.getMf().getTicker().compareTo(account2.getMf().getTicker());
+    }
+
+    /**
+     * Name comparators are stateless, so all instances are equal
+     * @param obj the Object to compare to this
+     * @return whether obj is also a NameComparator
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof NameComparator;
+    }
+
+    /**
+     * Returns a hash code consistent with equals
+     * @return the same value for every instance
+     */
+    @Override
+    public int hashCode() {
+        return NameComparator.class.hashCode();
     }
 } // end class NameComparator
 
@@ -112,6 +138,9 @@ class ValueComparator implements Comparator<MutualFundAccount> {
      * per share
      * uses the static Double compare method to make the
      * comparison
+     * breaks ties by name, as a NameComparator does, so two
+     * accounts worth the same amount are both kept in a tree
+     * ordered by value
      * @param account1 the first MutualFundAccount
      * @param account2 the second MutualFundAccount
      * @return The comparison.
@@ -120,6 +149,29 @@ class ValueComparator implements Comparator<MutualFundAccount> {
     public int compare(MutualFundAccount account1, MutualFundAccount account2) {
         double value1 = account1.getNumShares() * account1.getMf().getPricePerShare();
         double value2 = account2.getNumShares() * account2.getMf().getPricePerShare();
-        return Double.compare(value1, value2);
+        int comparison = Double.compare(value1, value2);
+        if (comparison != 0) {
+            return comparison;
+        }
+        return MutualFundAccount.BY_NAME.compare(account1, account2);
+    }
+
+    /**
+     * Value comparators are stateless, so all instances are equal
+     * @param obj the Object to compare to this
+     * @return whether obj is also a ValueComparator
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof ValueComparator;
+    }
+
+    /**
+     * Returns a hash code consistent with equals
+     * @return the same value for every instance
+     */
+    @Override
+    public int hashCode() {
+        return ValueComparator.class.hashCode();
     }
 }
@@ -0,0 +1,463 @@
+/**
+ * PersistentBST.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 3
+ */
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable, self-balancing (AVL) binary search tree. Each update
+ * returns a new version of the tree that copies only the O(log n) nodes
+ * on the path to the change and shares every other node with the old
+ * version, so keeping an old version around is free. A version can be
+ * read by any number of threads without locking.
+ * @param <T> the generic data stored in the tree
+ */
+public class PersistentBST<T> implements Iterable<T> {
+    private static final class Node<T> {
+        private final T data;
+        private final Node<T> left;
+        private final Node<T> right;
+        private final int height;
+        private final int size;
+
+        public Node(T data, Node<T> left, Node<T> right) {
+            this.data = data;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+            this.size = 1 + size(left) + size(right);
+        }
+    }
+
+    private final Node<T> root;
+    private final Comparator<T> order;
+
+    /****CONSTRUCTORS****/
+
+    /**
+     * Creates an empty tree whose ordering is fixed at construction.
+     * @param order the way the tree is organized.
+     */
+    public PersistentBST(Comparator<T> order) {
+        this(null, order);
+    }
+
+    /**
+     * Creates a version of the tree around an existing root.
+     * @param root the root of the version.
+     * @param order the way the tree is organized.
+     */
+    private PersistentBST(Node<T> root, Comparator<T> order) {
+        this.root = root;
+        this.order = order;
+    }
+
+    /**
+     * Creates a balanced tree from values already in ascending order,
+     * in O(n) rather than the O(n log n) of n inserts.
+     * @param sorted the values, in strictly ascending order.
+     * @param order the way the tree is organized.
+     * @return the new tree.
+     * @throws IllegalArgumentException when the values are not in
+     * strictly ascending order.
+     */
+    public static <T> PersistentBST<T> fromSorted(T[] sorted, Comparator<T> order)
+            throws IllegalArgumentException {
+        for (int i = 1; i < sorted.length; i++) {
+            if (order.compare(sorted[i - 1], sorted[i]) >= 0) {
+                throw new IllegalArgumentException("fromSorted(): Values out of order at " + i);
+            }
+        }
+        return new PersistentBST<>(build(sorted, 0, sorted.length), order);
+    }
+
+    /****ACCESSORS****/
+
+    /**
+     * Returns the ordering fixed at construction.
+     * @return the tree's Comparator.
+     */
+    public Comparator<T> getOrder() {
+        return order;
+    }
+
+    /**
+     * Determines whether the tree is empty.
+     * @return whether the tree is empty.
+     */
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Returns the current size of the tree (number of nodes).
+     * @return the size of the tree.
+     */
+    public int getSize() {
+        return size(root);
+    }
+
+    /**
+     * Returns the height of tree by counting edges.
+     * @return the height of the tree.
+     */
+    public int getHeight() {
+        return height(root);
+    }
+
+    /**
+     * Returns the smallest value in the tree.
+     * @precondition !isEmpty()
+     * @return the smallest value in the tree.
+     * @throws NoSuchElementException when the precondition is violated.
+     */
+    public T findMin() throws NoSuchElementException {
+        Node<T> node = root;
+        if (node == null) {
+            throw new NoSuchElementException("Tree is empty.");
+        }
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.data;
+    }
+
+    /**
+     * Returns the largest value in the tree.
+     * @precondition !isEmpty()
+     * @return the largest value in the tree.
+     * @throws NoSuchElementException when the precondition is violated.
+     */
+    public T findMax() throws NoSuchElementException {
+        Node<T> node = root;
+        if (node == null) {
+            throw new NoSuchElementException("Tree is empty.");
+        }
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.data;
+    }
+
+    /**
+     * Returns the value of the given rank, that is the value with
+     * exactly k smaller values in the tree.
+     * @param k the 0-based rank of the value.
+     * @precondition 0 <= k < getSize()
+     * @return the value of rank k.
+     * @throws IndexOutOfBoundsException when the precondition is violated.
+     */
+    public T select(int k) throws IndexOutOfBoundsException {
+        if (k < 0 || k >= getSize()) {
+            throw new IndexOutOfBoundsException("Rank out of bounds");
+        }
+        Node<T> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (k < leftSize) {
+                node = node.left;
+            } else if (k > leftSize) {
+                k -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.data;
+            }
+        }
+    }
+
+    /**
+     * Searches for a specified value in the tree.
+     * @param data the value to search for.
+     * @return the data stored in that Node of the tree, otherwise null.
+     */
+    public T search(T data) {
+        Node<T> node = root;
+        while (node != null) {
+            int comparison = order.compare(data, node.data);
+            if (comparison == 0) {
+                return node.data;
+            }
+            node = (comparison < 0) ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * Searches for a specified value in the tree.
+     * @param data the value to search for.
+     * @param cmp the Comparator that indicates the way
+     * the data in the tree was ordered.
+     * @return the data stored in that Node of the tree, otherwise null.
+     * @throws IllegalArgumentException when cmp does not match the
+     * tree's ordering.
+     */
+    public T search(T data, Comparator<T> cmp) throws IllegalArgumentException {
+        checkOrder(cmp);
+        return search(data);
+    }
+
+    /****MUTATORS****/
+
+    /**
+     * Returns a version of the tree that also contains the given value.
+     * @param data the data to insert.
+     * @return the new version, or this version when an equal value
+     * is already in the tree.
+     * @postcondition this version is unchanged.
+     */
+    public PersistentBST<T> insert(T data) {
+        Node<T> updated = insert(data, root);
+        return (updated == root) ? this : new PersistentBST<>(updated, order);
+    }
+
+    /**
+     * Returns a version of the tree that also contains the given value.
+     * @param data the data to insert.
+     * @param cmp the Comparator indicating how data in the tree is ordered.
+     * @return the new version, or this version when an equal value
+     * is already in the tree.
+     * @throws IllegalArgumentException when cmp does not match the
+     * tree's ordering.
+     */
+    public PersistentBST<T> insert(T data, Comparator<T> cmp) throws IllegalArgumentException {
+        checkOrder(cmp);
+        return insert(data);
+    }
+
+    /**
+     * Returns a version of the tree without the given value.
+     * @param data the value to remove.
+     * @return the new version, or this version when the value is not
+     * in the tree.
+     * @postcondition this version is unchanged.
+     */
+    public PersistentBST<T> remove(T data) {
+        Node<T> updated = remove(data, root);
+        return (updated == root) ? this : new PersistentBST<>(updated, order);
+    }
+
+    /**
+     * Returns a version of the tree without the given value.
+     * @param data the value to remove.
+     * @param cmp the Comparator indicating how data in the tree is organized.
+     * @return the new version, or this version when the value is not
+     * in the tree.
+     * @throws IllegalArgumentException when cmp does not match the
+     * tree's ordering.
+     */
+    public PersistentBST<T> remove(T data, Comparator<T> cmp) throws IllegalArgumentException {
+        checkOrder(cmp);
+        return remove(data);
+    }
+
+    /****ADDITIONAL OPERATIONS****/
+
+    /**
+     * Returns an iterator over the data in ascending order.
+     * @return an iterator from the smallest to the largest value.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new VersionIterator<>(root);
+    }
+
+    /**
+     * Returns a String containing the data in order followed by a new line.
+     * @return a String of data in order
+     */
+    public String inOrderString() {
+        StringBuilder inOrder = new StringBuilder();
+        for (T data : this) {
+            inOrder.append(data + "\n");
+        }
+        return inOrder.toString();
+    }
+
+    /****HELPERS****/
+
+    /**
+     * Helper method to insert, which copies the search path.
+     * @param data the data to insert.
+     * @param node the root of the current subtree.
+     * @return the root of the updated subtree, or node itself when
+     * nothing changed.
+     */
+    private Node<T> insert(T data, Node<T> node) {
+        if (node == null) {
+            return new Node<>(data, null, null);
+        }
+        int comparison = order.compare(data, node.data);
+        if (comparison < 0) {
+            Node<T> left = insert(data, node.left);
+            return (left == node.left) ? node : balance(node.data, left, node.right);
+        } else if (comparison > 0) {
+            Node<T> right = insert(data, node.right);
+            return (right == node.right) ? node : balance(node.data, node.left, right);
+        }
+        return node; // Duplicate, nothing to insert
+    }
+
+    /**
+     * Helper method to remove, which copies the search path.
+     * @param data the data to remove.
+     * @param node the root of the current subtree.
+     * @return the root of the updated subtree, or node itself when
+     * nothing changed.
+     */
+    private Node<T> remove(T data, Node<T> node) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = order.compare(data, node.data);
+        if (comparison < 0) {
+            Node<T> left = remove(data, node.left);
+            return (left == node.left) ? node : balance(node.data, left, node.right);
+        } else if (comparison > 0) {
+            Node<T> right = remove(data, node.right);
+            return (right == node.right) ? node : balance(node.data, node.left, right);
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        // Node with two children: a new node takes the smallest value
+        // from the right subtree, so the old node is never modified
+        Node<T> successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.data, node.left, removeMin(node.right));
+    }
+
+    /**
+     * Removes the smallest value of a subtree by copying its left spine.
+     * @param node the root of the subtree.
+     * @return the root of the updated subtree.
+     */
+    private Node<T> removeMin(Node<T> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        return balance(node.data, removeMin(node.left), node.right);
+    }
+
+    /**
+     * Creates a node from a value and two subtrees whose heights differ
+     * by at most two, rotating if needed to restore the AVL property.
+     * @param data the value of the new node.
+     * @param left the left subtree.
+     * @param right the right subtree.
+     * @return the root of the balanced subtree.
+     */
+    private static <T> Node<T> balance(T data, Node<T> left, Node<T> right) {
+        int balance = height(left) - height(right);
+        if (balance > 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node<>(left.data, left.left, new Node<>(data, left.right, right));
+            }
+            Node<T> pivot = left.right;
+            return new Node<>(pivot.data, new Node<>(left.data, left.left, pivot.left),
+                new Node<>(data, pivot.right, right));
+        } else if (balance < -1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node<>(right.data, new Node<>(data, left, right.left), right.right);
+            }
+            Node<T> pivot = right.left;
+            return new Node<>(pivot.data, new Node<>(data, left, pivot.left),
+                new Node<>(right.data, pivot.right, right.right));
+        }
+        return new Node<>(data, left, right);
+    }
+
+    /**
+     * Builds a balanced subtree from a range of sorted values, rooted
+     * at the middle one.
+     * @param sorted the values in ascending order.
+     * @param from the first index of the range.
+     * @param to the index after the last one of the range.
+     * @return the root of the subtree, or null for an empty range.
+     */
+    private static <T> Node<T> build(T[] sorted, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        return new Node<>(sorted[middle], build(sorted, from, middle), build(sorted, middle + 1, to));
+    }
+
+    /**
+     * Returns the cached height of a subtree.
+     * @param node the root of the subtree.
+     * @return the height, or -1 for an empty subtree.
+     */
+    private static int height(Node<?> node) {
+        return (node == null) ? -1 : node.height;
+    }
+
+    /**
+     * Returns the cached size of a subtree.
+     * @param node the root of the subtree.
+     * @return the number of nodes in the subtree.
+     */
+    private static int size(Node<?> node) {
+        return (node == null) ? 0 : node.size;
+    }
+
+    /**
+     * Guards against organizing the tree with a different ordering.
+     * @param cmp the Comparator passed by the caller.
+     * @throws IllegalArgumentException when cmp does not match the
+     * tree's ordering.
+     */
+    private void checkOrder(Comparator<T> cmp) throws IllegalArgumentException {
+        if (cmp != order && !order.equals(cmp)) {
+            throw new IllegalArgumentException("Comparator does not match the tree's ordering.");
+        }
+    }
+
+    /**
+     * Iterator over the immutable nodes of one version.
+     */
+    private static final class VersionIterator<T> implements Iterator<T> {
+        private final Object[] stack;
+        private int top;
+
+        public VersionIterator(Node<T> root) {
+            stack = new Object[height(root) + 1];
+            top = 0;
+            pushLeftSpine(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return top > 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() throws NoSuchElementException {
+            if (top == 0) {
+                throw new NoSuchElementException("No more values.");
+            }
+            Node<T> node = (Node<T>) stack[--top];
+            pushLeftSpine(node.right);
+            return node.data;
+        }
+
+        /**
+         * Pushes a node and all of its left descendants.
+         * @param node the node at which to start.
+         */
+        private void pushLeftSpine(Node<T> node) {
+            while (node != null) {
+                stack[top++] = node;
+                node = node.left;
+            }
+        }
+    }
+}
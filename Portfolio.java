@@ -0,0 +1,280 @@
+/**
+ * Portfolio.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 3
+ */
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A customer's accounts, indexed by fund name and by total value. The
+ * value of an account depends on its fund's share price, so the
+ * portfolio listens for price changes on every fund it holds: just
+ * before a price changes it takes that fund's account out of the value
+ * index, while the account can still be found by its old value, and
+ * puts it back once the new price is in place. A price change therefore
+ * moves only the accounts that hold the fund, in O(log n) each, and the
+ * value index never holds an account out of order.
+ *
+ * A lock guards both trees, so prices can be updated from a feed thread
+ * while a customer trades. The lock is taken in priceWillChange and
+ * released in the matching priceChanged, so nothing can see or change
+ * the portfolio while an account is out of the value index. A trade also
+ * holds the fund's monitor, as setPricePerShare does, so a price cannot
+ * change between valuing an account and registering for its updates;
+ * both paths take the fund first and the portfolio second.
+ *
+ * Renaming a fund works the same way, except that its account leaves
+ * both indexes, since both are ordered by fund name.
+ */
+public class Portfolio implements PriceListener {
+    private final BST<MutualFundAccount> accountsByName;
+    private final BST<MutualFundAccount> accountsByValue;
+    private final ReentrantLock lock;
+    private MutualFundAccount renaming; // guarded by lock
+
+    /****CONSTRUCTORS****/
+
+    /**
+     * Creates an empty portfolio.
+     */
+    public Portfolio() {
+        accountsByName = new BST<>(MutualFundAccount.BY_NAME, true);
+        accountsByValue = new BST<>(MutualFundAccount.BY_VALUE, true);
+        lock = new ReentrantLock();
+    }
+
+    /****ACCESSORS****/
+
+    /**
+     * Determines whether the portfolio holds no accounts.
+     * @return whether the portfolio is empty.
+     */
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return accountsByName.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of accounts in the portfolio.
+     * @return the number of accounts.
+     */
+    public int getSize() {
+        lock.lock();
+        try {
+            return accountsByName.getSize();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the account holding a fund.
+     * @param fund the fund.
+     * @return the account, or null if the fund is not held.
+     */
+    public MutualFundAccount getAccount(MutualFund fund) {
+        lock.lock();
+        try {
+            return accountsByName.search(new MutualFundAccount(fund));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a copy of the accounts in ascending order of fund name,
+     * unaffected by later changes.
+     * @return the accounts by name.
+     */
+    public Iterable<MutualFundAccount> byName() {
+        return snapshot(accountsByName);
+    }
+
+    /**
+     * Returns a copy of the accounts in ascending order of total value,
+     * unaffected by later changes.
+     * @return the accounts by value.
+     */
+    public Iterable<MutualFundAccount> byValue() {
+        return snapshot(accountsByValue);
+    }
+
+    /****MUTATORS****/
+
+    /**
+     * Buys shares of a fund, opening an account for it if needed.
+     * @param fund the fund to buy.
+     * @param shares the number of shares to buy.
+     * @throws IllegalArgumentException when shares <= 0
+     */
+    public void purchase(MutualFund fund, double shares) throws IllegalArgumentException {
+        if (shares <= 0) {
+            throw new IllegalArgumentException("Shares to buy must be positive.");
+        }
+        synchronized (fund) {
+            lock.lock();
+            try {
+                MutualFundAccount account = getAccount(fund);
+                if (account != null) {
+                    // Take the account out of the value index while its value changes
+                    accountsByValue.remove(account);
+                    account.updateShares(shares);
+                    accountsByValue.insert(account);
+                } else {
+                    account = new MutualFundAccount(fund, shares);
+                    accountsByName.insert(account);
+                    accountsByValue.insert(account);
+                    fund.addPriceListener(this);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Sells shares of a fund, closing its account when none are left.
+     * @param fund the fund to sell.
+     * @param shares the number of shares to sell.
+     * @throws IllegalArgumentException when shares <= 0, the fund is not
+     * held, or more shares are sold than are held
+     */
+    public void sell(MutualFund fund, double shares) throws IllegalArgumentException {
+        if (shares <= 0) {
+            throw new IllegalArgumentException("Shares to sell must be positive.");
+        }
+        synchronized (fund) {
+            lock.lock();
+            try {
+                MutualFundAccount account = getAccount(fund);
+                if (account == null) {
+                    throw new IllegalArgumentException("No account for " + fund.getFundName());
+                }
+                if (shares > account.getNumShares()) {
+                    throw new IllegalArgumentException("Cannot sell more shares than are held.");
+                }
+                // Remove the account from the value index while it still has
+                // its old value, so the removal finds the right node
+                accountsByValue.remove(account);
+                account.updateShares(-shares);
+                if (account.getNumShares() == 0) {
+                    accountsByName.remove(account);
+                    fund.removePriceListener(this);
+                } else {
+                    accountsByValue.insert(account);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /****PRICE UPDATES****/
+
+    /**
+     * Locks the portfolio and takes the fund's account out of the value
+     * index while it can still be found by its old value. The lock is
+     * held until priceChanged.
+     * @param fund the fund whose price is changing.
+     * @param newPrice the price about to be stored.
+     */
+    @Override
+    public void priceWillChange(MutualFund fund, double newPrice) {
+        lock.lock();
+        try {
+            MutualFundAccount account = getAccount(fund);
+            if (account != null) {
+                accountsByValue.remove(account);
+            }
+        } catch (RuntimeException e) {
+            lock.unlock(); // priceChanged will not follow
+            throw e;
+        }
+    }
+
+    /**
+     * Puts the fund's account back into the value index at its new value
+     * and releases the lock taken in priceWillChange.
+     * @param fund the fund whose price changed.
+     * @param oldPrice the price before the change.
+     */
+    @Override
+    public void priceChanged(MutualFund fund, double oldPrice) {
+        try {
+            MutualFundAccount account = getAccount(fund);
+            if (account != null) {
+                accountsByValue.insert(account);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Locks the portfolio and takes the fund's account out of both
+     * indexes while it can still be found by its old name. The lock is
+     * held until fundRenamed.
+     * @param fund the fund being renamed.
+     * @param newName the name about to be stored.
+     * @param newTicker the ticker about to be stored.
+     */
+    @Override
+    public void fundWillRename(MutualFund fund, String newName, String newTicker) {
+        lock.lock();
+        try {
+            MutualFundAccount account = getAccount(fund);
+            if (account != null) {
+                accountsByName.remove(account);
+                accountsByValue.remove(account);
+            }
+            renaming = account;
+        } catch (RuntimeException e) {
+            lock.unlock(); // fundRenamed will not follow
+            throw e;
+        }
+    }
+
+    /**
+     * Puts the fund's account back into both indexes under its new name
+     * and releases the lock taken in fundWillRename.
+     * @param fund the fund that was renamed.
+     * @param oldName the name before the change.
+     * @param oldTicker the ticker before the change.
+     */
+    @Override
+    public void fundRenamed(MutualFund fund, String oldName, String oldTicker) {
+        try {
+            if (renaming != null) {
+                accountsByName.insert(renaming);
+                accountsByValue.insert(renaming);
+                renaming = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /****HELPERS****/
+
+    /**
+     * Copies a tree's accounts in order under the lock.
+     * @param accounts the tree to copy.
+     * @return the accounts in the tree's order.
+     */
+    private Iterable<MutualFundAccount> snapshot(BST<MutualFundAccount> accounts) {
+        lock.lock();
+        try {
+            IndexedList<MutualFundAccount> copy = new IndexedList<>();
+            for (MutualFundAccount account : accounts) {
+                copy.addLast(account);
+            }
+            return copy;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
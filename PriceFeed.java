@@ -0,0 +1,496 @@
+/**
+ * PriceFeed.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 3
+ */
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams price ticks into the fund catalog. Reader threads parse lines
+ * of the form TICKER,PRICE,TIMESTAMP from files or a local socket and
+ * hand them over in batches through a BoundedBlockingQueue, so a slow
+ * applier makes the readers wait instead of letting memory grow.
+ *
+ * A single applier thread is the only writer of fund prices. It gathers
+ * ticks for one batch window, keeps only the newest tick per fund, and
+ * then sets each fund's price once. A tick older than the last one
+ * applied to its fund is dropped, so a late quote never overwrites a
+ * newer price. Setting the price notifies the fund's PriceListeners,
+ * such as a Portfolio, which reindex only the affected accounts. The
+ * time from receiving a tick to applying it is recorded, and
+ * latencyReport() gives its percentiles.
+ *
+ * The applier resolves tickers to funds through a cache, which it clears
+ * whenever the catalog's version changes.
+ */
+public class PriceFeed implements AutoCloseable {
+    private static final int READ_BATCH = 512;
+    private static final int LATENCY_SAMPLES = 1 << 16;
+
+    /**
+     * Keeps the most recent latency samples in a ring, so percentiles
+     * reflect recent behavior in bounded memory.
+     */
+    private static final class LatencyRecorder {
+        private final long[] samples = new long[LATENCY_SAMPLES];
+        private long count;
+        private long max;
+
+        /**
+         * Records a batch of latencies under one lock.
+         * @param latencies the latencies in nanoseconds.
+         * @param n the number of latencies to record.
+         */
+        public synchronized void record(long[] latencies, int n) {
+            for (int i = 0; i < n; i++) {
+                samples[(int) (count++ & (LATENCY_SAMPLES - 1))] = latencies[i];
+                max = Math.max(max, latencies[i]);
+            }
+        }
+
+        /**
+         * Returns p50, p90, p99 and p99.9 of the kept samples and the
+         * maximum ever recorded.
+         * @return the report, or a note that nothing was recorded.
+         */
+        public synchronized String report() {
+            int n = (int) Math.min(count, LATENCY_SAMPLES);
+            if (n == 0) {
+                return "no ticks applied";
+            }
+            long[] sorted = Arrays.copyOf(samples, n);
+            Arrays.sort(sorted);
+            return String.format("p50=%.1fus p90=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+                micros(sorted, 0.50), micros(sorted, 0.90), micros(sorted, 0.99),
+                micros(sorted, 0.999), max / 1000.0);
+        }
+
+        private static double micros(long[] sorted, double quantile) {
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1000.0;
+        }
+    }
+
+    /**
+     * The applier's state for one fund: the newest tick waiting in the
+     * current window, and the timestamp of the last tick applied.
+     */
+    private static final class FundState {
+        private final MutualFund fund;
+        private PriceTick pending;
+        private long lastApplied;
+
+        public FundState(MutualFund fund) {
+            this.fund = fund;
+            this.lastApplied = Long.MIN_VALUE;
+        }
+    }
+
+    private final Catalog catalog;
+    private final long windowNanos;
+    private final BoundedBlockingQueue<List<PriceTick>> handoff;
+    private final Thread applier;
+    private final List<Thread> readers;
+    private final List<AutoCloseable> sources;
+    private final LatencyRecorder latencies;
+    private volatile boolean running;
+
+    // Used only by the applier thread
+    private final Map<String, FundState> byTicker;
+    private final Map<MutualFund, FundState> states;
+    private final List<FundState> pending;
+    private int cachedVersion;
+
+    private final AtomicLong receivedCount;
+    private final AtomicLong malformedCount;
+    private volatile long appliedCount;
+    private volatile long coalescedCount;
+    private volatile long unknownCount;
+    private volatile long staleCount;
+
+    /****CONSTRUCTORS****/
+
+    /**
+     * Creates a feed and starts its applier thread.
+     * @param catalog the funds whose prices the feed updates.
+     * @param window how long to gather ticks before applying them.
+     * @param unit the unit of window.
+     * @param maxPendingBatches how many read batches may wait for the
+     * applier before readers block.
+     * @throws IllegalArgumentException when window < 0 or
+     * maxPendingBatches < 1
+     */
+    public PriceFeed(Catalog catalog, long window, TimeUnit unit, int maxPendingBatches)
+            throws IllegalArgumentException {
+        if (window < 0) {
+            throw new IllegalArgumentException("Batch window cannot be negative.");
+        }
+        this.catalog = catalog;
+        this.windowNanos = unit.toNanos(window);
+        this.handoff = new BoundedBlockingQueue<>(maxPendingBatches);
+        this.readers = new ArrayList<>();
+        this.sources = new ArrayList<>();
+        this.latencies = new LatencyRecorder();
+        this.receivedCount = new AtomicLong();
+        this.malformedCount = new AtomicLong();
+        this.byTicker = new HashMap<>();
+        this.states = new IdentityHashMap<>();
+        this.pending = new ArrayList<>();
+        this.cachedVersion = catalog.getVersion();
+        this.running = true;
+        this.applier = new Thread(this::applyLoop, "price-feed-applier");
+        this.applier.setDaemon(true);
+        this.applier.start();
+    }
+
+    /****SOURCES****/
+
+    /**
+     * Hands one tick to the applier, waiting while the feed is backed up.
+     * @param tick the tick to apply.
+     * @throws InterruptedException when interrupted while waiting.
+     */
+    public void publish(PriceTick tick) throws InterruptedException {
+        receivedCount.incrementAndGet();
+        List<PriceTick> batch = new ArrayList<>(1);
+        batch.add(tick);
+        handoff.put(batch);
+    }
+
+    /**
+     * Hands several ticks to the applier as one batch, waiting while the
+     * feed is backed up.
+     * @param ticks the ticks to apply.
+     * @throws InterruptedException when interrupted while waiting.
+     */
+    public void publish(List<PriceTick> ticks) throws InterruptedException {
+        if (ticks.isEmpty()) {
+            return;
+        }
+        receivedCount.addAndGet(ticks.size());
+        handoff.put(new ArrayList<>(ticks));
+    }
+
+    /**
+     * Reads ticks from a file on a new reader thread.
+     * @param file the file of TICKER,PRICE,TIMESTAMP lines.
+     * @throws IOException when the file cannot be opened.
+     */
+    public void readFile(Path file) throws IOException {
+        startReader(Files.newInputStream(file), "price-feed-file");
+    }
+
+    /**
+     * Listens on a local port on a new reader thread, reading ticks from
+     * one connection at a time until the feed is closed.
+     * @param port the port on the loopback address.
+     * @throws IOException when the port cannot be bound.
+     */
+    public void listen(int port) throws IOException {
+        ServerSocket server = new ServerSocket(port, 1, InetAddress.getLoopbackAddress());
+        register(server);
+        Thread reader = new Thread(() -> {
+            while (running) {
+                try (Socket socket = server.accept()) {
+                    readLines(socket.getInputStream());
+                } catch (IOException e) {
+                    // Closed by close(), or the connection dropped
+                }
+            }
+        }, "price-feed-socket");
+        reader.setDaemon(true);
+        readers.add(reader);
+        reader.start();
+    }
+
+    /****ACCESSORS****/
+
+    /**
+     * Returns how many ticks were read or published.
+     * @return the number of ticks received
+     */
+    public long getReceivedCount() {
+        return receivedCount.get();
+    }
+
+    /**
+     * Returns how many fund prices were set.
+     * @return the number of ticks applied
+     */
+    public long getAppliedCount() {
+        return appliedCount;
+    }
+
+    /**
+     * Returns how many ticks were replaced by a newer tick for the same
+     * fund within a batch window and never applied.
+     * @return the number of coalesced ticks
+     */
+    public long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * Returns how many ticks named a ticker missing from the catalog.
+     * @return the number of unknown-ticker ticks
+     */
+    public long getUnknownCount() {
+        return unknownCount;
+    }
+
+    /**
+     * Returns how many ticks were dropped for being older than the last
+     * tick applied to their fund.
+     * @return the number of stale ticks
+     */
+    public long getStaleCount() {
+        return staleCount;
+    }
+
+    /**
+     * Returns how many lines could not be parsed as ticks.
+     * @return the number of malformed lines
+     */
+    public long getMalformedCount() {
+        return malformedCount.get();
+    }
+
+    /**
+     * Summarizes the feed's counts and its receipt-to-apply latency.
+     * @return the latency percentiles and counts
+     */
+    public String latencyReport() {
+        return String.format(
+            "received=%d applied=%d coalesced=%d stale=%d unknown=%d malformed=%d %s",
+            getReceivedCount(), appliedCount, coalescedCount, staleCount, unknownCount,
+            getMalformedCount(), latencies.report());
+    }
+
+    /****ADDITIONAL OPERATIONS****/
+
+    /**
+     * Waits until every tick received so far has been applied.
+     * @throws InterruptedException when interrupted while waiting.
+     */
+    public void awaitIdle() throws InterruptedException {
+        while (appliedCount + coalescedCount + staleCount + unknownCount < receivedCount.get()) {
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Stops the readers, applies the ticks already handed over and
+     * stops the applier.
+     */
+    @Override
+    public void close() {
+        running = false;
+        synchronized (sources) {
+            for (AutoCloseable source : sources) {
+                try {
+                    source.close();
+                } catch (Exception e) {
+                    // Nothing more to read from it either way
+                }
+            }
+        }
+        for (Thread reader : readers) {
+            reader.interrupt();
+        }
+        try {
+            applier.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /****HELPERS****/
+
+    /**
+     * Starts a reader thread for a stream.
+     * @param in the stream of tick lines.
+     * @param name the thread name.
+     */
+    private void startReader(InputStream in, String name) {
+        register(in);
+        Thread reader = new Thread(() -> {
+            try {
+                readLines(in);
+            } catch (IOException e) {
+                // Closed by close(), or the source failed
+            }
+        }, name);
+        reader.setDaemon(true);
+        readers.add(reader);
+        reader.start();
+    }
+
+    /**
+     * Remembers a source so close() can stop reads blocked on it.
+     * @param source the stream or socket.
+     */
+    private void register(AutoCloseable source) {
+        synchronized (sources) {
+            sources.add(source);
+        }
+    }
+
+    /**
+     * Parses lines into ticks and hands them over in batches. A batch
+     * is handed over when full, or as soon as no more input is ready,
+     * so a slow source does not hold ticks back.
+     * @param in the stream of tick lines.
+     * @throws IOException when reading fails.
+     */
+    private void readLines(InputStream in) throws IOException {
+        BufferedReader lines = new BufferedReader(
+            new InputStreamReader(in, StandardCharsets.US_ASCII), 1 << 16);
+        List<PriceTick> batch = new ArrayList<>(READ_BATCH);
+        try {
+            String line;
+            while (running && (line = lines.readLine()) != null) {
+                if (!line.isEmpty() && line.charAt(0) != '#') {
+                    try {
+                        batch.add(PriceTick.parse(line, System.nanoTime()));
+                    } catch (IllegalArgumentException e) {
+                        malformedCount.incrementAndGet();
+                    }
+                }
+                if (batch.size() == READ_BATCH || (!batch.isEmpty() && !lines.ready())) {
+                    receivedCount.addAndGet(batch.size());
+                    handoff.put(batch);
+                    batch = new ArrayList<>(READ_BATCH);
+                }
+            }
+            if (!batch.isEmpty()) {
+                receivedCount.addAndGet(batch.size());
+                handoff.put(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The applier thread: gathers ticks for one window, keeping the
+     * newest per fund, then applies them, until the feed is closed and
+     * every handed-over batch is applied.
+     */
+    private void applyLoop() {
+        long[] batchLatencies = new long[64];
+        try {
+            while (running || !handoff.isEmpty()) {
+                List<PriceTick> batch = handoff.poll(10, TimeUnit.MILLISECONDS);
+                if (batch == null) {
+                    continue;
+                }
+                long deadline = System.nanoTime() + windowNanos;
+                absorb(batch);
+                long remaining;
+                while ((remaining = deadline - System.nanoTime()) > 0
+                        && (batch = handoff.poll(remaining, TimeUnit.NANOSECONDS)) != null) {
+                    absorb(batch);
+                }
+                if (batchLatencies.length < pending.size()) {
+                    batchLatencies = new long[Integer.highestOneBit(pending.size()) << 1];
+                }
+                apply(batchLatencies);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Adds ticks to the pending funds, keeping the newest per fund.
+     * Ticks for tickers missing from the catalog are counted and dropped.
+     * @param batch the ticks to add.
+     */
+    private void absorb(List<PriceTick> batch) {
+        int version = catalog.getVersion();
+        if (version != cachedVersion) {
+            // Funds were added, removed or renamed; resolve tickers again
+            byTicker.clear();
+            cachedVersion = version;
+        }
+        long superseded = 0;
+        long unknown = 0;
+        for (PriceTick tick : batch) {
+            FundState state = resolve(tick.getTicker());
+            if (state == null) {
+                unknown++;
+            } else if (state.pending == null) {
+                state.pending = tick;
+                pending.add(state);
+            } else {
+                superseded++;
+                if (tick.getTimestamp() >= state.pending.getTimestamp()) {
+                    state.pending = tick;
+                }
+            }
+        }
+        // Only this thread writes the counters, so plain updates suffice
+        coalescedCount += superseded;
+        unknownCount += unknown;
+    }
+
+    /**
+     * Finds the state of the fund with a ticker, caching the lookup.
+     * @param ticker the ticker as it appeared in the tick.
+     * @return the fund's state, or null if no fund has that ticker.
+     */
+    private FundState resolve(String ticker) {
+        FundState state = byTicker.get(ticker);
+        if (state == null) {
+            MutualFund fund = catalog.findByTicker(ticker);
+            if (fund == null) {
+                return null;
+            }
+            state = states.computeIfAbsent(fund, FundState::new);
+            byTicker.put(ticker, state);
+        }
+        return state;
+    }
+
+    /**
+     * Sets the price of each pending fund and records latencies. A tick
+     * older than the last one applied to its fund is dropped.
+     * @param batchLatencies scratch space for one latency per fund.
+     */
+    private void apply(long[] batchLatencies) {
+        int applied = 0;
+        long stale = 0;
+        for (FundState state : pending) {
+            PriceTick tick = state.pending;
+            state.pending = null;
+            if (tick.getTimestamp() < state.lastApplied) {
+                stale++;
+                continue;
+            }
+            state.lastApplied = tick.getTimestamp();
+            state.fund.setPricePerShare(tick.getPrice());
+            batchLatencies[applied++] = System.nanoTime() - tick.getReceivedNanos();
+        }
+        pending.clear();
+        latencies.record(batchLatencies, applied);
+        appliedCount += applied;
+        staleCount += stale;
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * PriceListener.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 3
+ */
+
+/**
+ * Receives notice of share price changes on a MutualFund, and of the fund
+ * being renamed. Each change is reported twice: before the new value is
+ * stored, while anything ordered by the old value can still be found, and
+ * after, so it can be put back in order. A listener whose priceWillChange
+ * or fundWillRename returned normally always receives the matching
+ * priceChanged or fundRenamed.
+ */
+public interface PriceListener {
+    /**
+     * Called before a fund's price changes; the fund still reports
+     * its old price.
+     * @param fund the fund whose price is changing.
+     * @param newPrice the price about to be stored.
+     */
+    void priceWillChange(MutualFund fund, double newPrice);
+
+    /**
+     * Called after a fund's price has changed; the fund reports
+     * its new price.
+     * @param fund the fund whose price changed.
+     * @param oldPrice the price before the change.
+     */
+    void priceChanged(MutualFund fund, double oldPrice);
+
+    /**
+     * Called before a fund's name and ticker change; the fund still
+     * reports its old ones.
+     * @param fund the fund being renamed.
+     * @param newName the name about to be stored.
+     * @param newTicker the ticker about to be stored.
+     */
+    void fundWillRename(MutualFund fund, String newName, String newTicker);
+
+    /**
+     * Called after a fund's name and ticker have changed; the fund
+     * reports its new ones.
+     * @param fund the fund that was renamed.
+     * @param oldName the name before the change.
+     * @param oldTicker the ticker before the change.
+     */
+    void fundRenamed(MutualFund fund, String oldName, String oldTicker);
+}
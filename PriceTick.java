@@ -0,0 +1,116 @@
+/**
+ * PriceTick.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 3
+ */
+
+/**
+ * One price quote from a feed: a fund's ticker, its new share price and
+ * the time the quote was made. It also records when the quote was
+ * received, so the time until the price is applied can be measured.
+ */
+public final class PriceTick {
+    private final String ticker;
+    private final double price;
+    private final long timestamp;
+    private final long receivedNanos;
+
+    /****CONSTRUCTORS****/
+
+    /**
+     * Creates a tick received now.
+     * @param ticker the fund's ticker symbol.
+     * @param price the new share price.
+     * @param timestamp when the quote was made, in milliseconds.
+     */
+    public PriceTick(String ticker, double price, long timestamp) {
+        this(ticker, price, timestamp, System.nanoTime());
+    }
+
+    /**
+     * Creates a tick received at a given time.
+     * @param ticker the fund's ticker symbol.
+     * @param price the new share price.
+     * @param timestamp when the quote was made, in milliseconds.
+     * @param receivedNanos when the quote was received, from System.nanoTime().
+     */
+    public PriceTick(String ticker, double price, long timestamp, long receivedNanos) {
+        this.ticker = ticker;
+        this.price = price;
+        this.timestamp = timestamp;
+        this.receivedNanos = receivedNanos;
+    }
+
+    /**
+     * Parses a tick from a line of the form TICKER,PRICE,TIMESTAMP.
+     * Spaces around each field are ignored.
+     * @param line the line to parse.
+     * @param receivedNanos when the line was received, from System.nanoTime().
+     * @return the tick.
+     * @throws IllegalArgumentException when the line is not a valid tick.
+     */
+    public static PriceTick parse(String line, long receivedNanos) throws IllegalArgumentException {
+        int first = line.indexOf(',');
+        int second = (first < 0) ? -1 : line.indexOf(',', first + 1);
+        if (second < 0) {
+            throw new IllegalArgumentException("Expected TICKER,PRICE,TIMESTAMP: " + line);
+        }
+        String ticker = line.substring(0, first).trim();
+        if (ticker.isEmpty()) {
+            throw new IllegalArgumentException("Missing ticker: " + line);
+        }
+        try {
+            double price = Double.parseDouble(line.substring(first + 1, second));
+            long timestamp = Long.parseLong(line.substring(second + 1).trim());
+            if (!(price >= 0) || Double.isInfinite(price)) {
+                throw new IllegalArgumentException("Invalid price: " + line);
+            }
+            return new PriceTick(ticker, price, timestamp, receivedNanos);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + line, e);
+        }
+    }
+
+    /****ACCESSORS****/
+
+    /**
+     * Accesses the ticker symbol
+     * @return the ticker symbol
+     */
+    public String getTicker() {
+        return ticker;
+    }
+
+    /**
+     * Accesses the new share price
+     * @return the share price
+     */
+    public double getPrice() {
+        return price;
+    }
+
+    /**
+     * Accesses the time the quote was made
+     * @return the timestamp in milliseconds
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Accesses the time the quote was received
+     * @return the System.nanoTime() value at receipt
+     */
+    public long getReceivedNanos() {
+        return receivedNanos;
+    }
+
+    /**
+     * Creates a String of the tick as TICKER,PRICE,TIMESTAMP
+     * @return the tick in its line format
+     */
+    @Override
+    public String toString() {
+        return ticker + "," + price + "," + timestamp;
+    }
+}
@@ -4,6 +4,9 @@
  * CIS 22C, Lab 5
  * @param <T> the generic data stored in the Queue
  */
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 public class Queue<T> implements Q<T> {
@@ -139,6 +142,56 @@ public class Queue<T> implements Q<T> {
         }
     }
 
+    /**
+     * Inserts each value, in order, at the end of the Queue
+     * @param values the values to insert
+     * @postcondition the values are at the end of the Queue
+     */
+    public void enqueueAll(Iterable<? extends T> values) {
+        for (T value : values) {
+            enqueue(value);
+        }
+    }
+
+    /**
+     * Removes up to max values from the front of the Queue and adds
+     * them, in order, to a collection
+     * Note: a value is removed only once the collection has taken it,
+     * so if adding throws, the Queue keeps that value and the rest
+     * @param target the collection receiving the values
+     * @param max the largest number of values to move
+     * @return the number of values moved
+     * @throws IllegalArgumentException when max < 0
+     */
+    public int drainTo(Collection<? super T> target, int max) throws IllegalArgumentException {
+        if (max < 0) {
+            throw new IllegalArgumentException("drainTo(): max cannot be negative!");
+        }
+        int count = Math.min(max, size);
+        for (int i = 0; i < count; i++) {
+            target.add(front.data);
+            front = front.next;
+            size--;
+            if (front == null) {
+                end = null;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Removes up to n values from the front of the Queue
+     * @param n the largest number of values to remove
+     * @return the removed values in order, fewer than n when the
+     * Queue runs out
+     * @throws IllegalArgumentException when n < 0
+     */
+    public List<T> dequeueBatch(int n) throws IllegalArgumentException {
+        List<T> batch = new ArrayList<>(Math.min(Math.max(n, 0), size));
+        drainTo(batch, n);
+        return batch;
+    }
+
     /****ADDITIONAL OPERATIONS****/
 
     /**
@@ -0,0 +1,731 @@
+/**
+ * Defines an unrolled doubly-linked list class
+ * @author Minh Long Hang
+ */
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A doubly-linked list whose nodes each hold a small array of elements
+ * instead of a single one. The per-element cost of node headers and
+ * next/prev links is spread over a whole array, and iterating walks
+ * contiguous slots instead of chasing a pointer per element. It offers
+ * the same operations as LinkedList, including the internal iterator.
+ * @param <T> the generic data stored in the list
+ */
+public class UnrolledLinkedList<T> implements Iterable<T> {
+    private class Node {
+        private final Object[] items;
+        private int count;
+        private Node next;
+        private Node prev;
+
+        public Node() {
+            this.items = new Object[nodeCapacity];
+            this.count = 0;
+            this.next = null;
+            this.prev = null;
+        }
+    }
+
+    private static final int DEFAULT_NODE_CAPACITY = 32;
+
+    private final int nodeCapacity;
+    private int length;
+    private Node first;
+    private Node last;
+    private Node iterator;
+    private int iteratorOffset;
+    private int modCount;
+
+    /**** CONSTRUCTORS ****/
+
+    /**
+     * Instantiates a new UnrolledLinkedList with default values
+     * @postcondition A new empty UnrolledLinkedList is created
+     */
+    public UnrolledLinkedList() {
+        this(DEFAULT_NODE_CAPACITY);
+    }
+
+    /**
+     * Instantiates a new UnrolledLinkedList whose nodes hold the given
+     * number of elements
+     * @param nodeCapacity the number of elements per node, at least 2
+     * @postcondition A new empty UnrolledLinkedList is created
+     * @throws IllegalArgumentException when nodeCapacity < 2
+     */
+    public UnrolledLinkedList(int nodeCapacity) throws IllegalArgumentException {
+        if (nodeCapacity < 2) {
+            throw new IllegalArgumentException("Node capacity must be at least 2.");
+        }
+        this.nodeCapacity = nodeCapacity;
+        first = null;
+        last = null;
+        iterator = null;
+        iteratorOffset = 0;
+        length = 0;
+        modCount = 0;
+    }
+
+    /**
+     * Converts the given array into an UnrolledLinkedList
+     * @param array the array of values to insert into this list
+     * @postcondition The array elements are added to the list in order
+     */
+    public UnrolledLinkedList(T[] array) {
+        this();
+        if (array == null) {
+            return;
+        }
+        for (T element : array) {
+            addLast(element);
+        }
+    }
+
+    /**
+     * Instantiates a new UnrolledLinkedList by copying another one
+     * @param original the UnrolledLinkedList to copy
+     * @postcondition a new list, which is an identical,
+     * but separate, copy of original
+     */
+    public UnrolledLinkedList(UnrolledLinkedList<T> original) {
+        this(original == null ? DEFAULT_NODE_CAPACITY : original.nodeCapacity);
+        if (original != null) {
+            for (Node node = original.first; node != null; node = node.next) {
+                Node copy = new Node();
+                System.arraycopy(node.items, 0, copy.items, 0, node.count);
+                copy.count = node.count;
+                linkLast(copy);
+            }
+            length = original.length;
+        }
+    }
+
+    /**** ACCESSORS ****/
+
+    /**
+     * Returns the value stored at the front of the list
+     * @precondition list must not be empty
+     * @return the first value
+     * @throws NoSuchElementException if the list is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T getFirst() throws NoSuchElementException {
+        if (length == 0) {
+            throw new NoSuchElementException("The UnrolledLinkedList is empty.");
+        }
+        return (T) first.items[0];
+    }
+
+    /**
+     * Returns the value stored at the end of the list
+     * @precondition list must not be empty
+     * @return the last value
+     * @throws NoSuchElementException if the list is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T getLast() throws NoSuchElementException {
+        if (length == 0) {
+            throw new NoSuchElementException("The UnrolledLinkedList is empty.");
+        }
+        return (T) last.items[last.count - 1];
+    }
+
+    /**
+     * Returns the data at the iterator's position
+     * @precondition Iterator must not be off end
+     * @return the data at the iterator's position
+     * @throws NullPointerException if the iterator is off end
+     */
+    @SuppressWarnings("unchecked")
+    public T getIterator() throws NullPointerException {
+        if (iterator == null) {
+            throw new NullPointerException("Iterator is off end.");
+        }
+        return (T) iterator.items[iteratorOffset];
+    }
+
+    /**
+     * Returns the current length of the list
+     * @return the length of the list from 0 to n
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns whether the list is currently empty
+     * @return whether the list is empty
+     */
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * Returns whether the iterator is off end
+     * @return whether the iterator is off end
+     */
+    public boolean offEnd() {
+        return iterator == null;
+    }
+
+    /**** MUTATORS ****/
+
+    /**
+     * Inserts a new first element
+     * @param data the data to insert at the front of the list
+     * @postcondition A new element is added to the front of the list
+     */
+    public void addFirst(T data) {
+        if (first == null || first.count == nodeCapacity) {
+            linkFirst(new Node());
+        }
+        insertInNode(first, 0, data);
+        length++;
+        modCount++;
+    }
+
+    /**
+     * Inserts a new last element
+     * @param data the data to insert at the end of the list
+     * @postcondition A new element is added to the end of the list
+     */
+    public void addLast(T data) {
+        if (last == null || last.count == nodeCapacity) {
+            linkLast(new Node());
+        }
+        last.items[last.count++] = data;
+        length++;
+        modCount++;
+    }
+
+    /**
+     * removes the element at the front of the list
+     * @precondition list must not be empty
+     * @postcondition The first element is removed from the list
+     * @throws NoSuchElementException if the list is empty
+     */
+    public void removeFirst() throws NoSuchElementException {
+        if (length == 0) {
+            throw new NoSuchElementException("The UnrolledLinkedList is empty.");
+        }
+        removeFromNode(first, 0);
+    }
+
+    /**
+     * removes the element at the end of the list
+     * @precondition list must not be empty
+     * @postcondition The last element is removed from the list
+     * @throws NoSuchElementException if the list is empty
+     */
+    public void removeLast() throws NoSuchElementException {
+        if (length == 0) {
+            throw new NoSuchElementException("The UnrolledLinkedList is empty.");
+        }
+        removeFromNode(last, last.count - 1);
+    }
+
+    /**
+     * Inserts an element after the iterator
+     * @param data the data to insert after the iterator
+     * @postcondition A new element is added after the iterator
+     * @throws NullPointerException if the iterator is off end
+     */
+    public void addIterator(T data) throws NullPointerException {
+        if (iterator == null) {
+            throw new NullPointerException("Iterator is off end.");
+        }
+        Node node = iterator;
+        int offset = iteratorOffset + 1;
+        if (node.count == nodeCapacity) {
+            // Split the full node in half; the iterator may move along
+            split(node, nodeCapacity / 2);
+            if (offset > node.count) {
+                offset -= node.count;
+                node = node.next;
+            }
+        }
+        insertInNode(node, offset, data);
+        length++;
+        modCount++;
+    }
+
+    /**
+     * Removes the element at the iterator and sets the iterator to null
+     * @precondition Iterator must not be off end
+     * @postcondition The iterator is set to null and the element is removed
+     * @throws NullPointerException if the iterator is off end
+     */
+    public void removeIterator() throws NullPointerException {
+        if (iterator == null) {
+            throw new NullPointerException("Iterator is off end.");
+        }
+        removeFromNode(iterator, iteratorOffset);
+        iterator = null;
+    }
+
+    /**** ITERATOR OPERATIONS ****/
+
+    /**
+     * Positions the iterator at the start of the list
+     * @postcondition Iterator is set to the first element
+     */
+    public void positionIterator() {
+        iterator = first;
+        iteratorOffset = 0;
+    }
+
+    /**
+     * Moves the iterator one position forward in the list
+     * @precondition Iterator must not be null
+     * @postcondition Iterator moves one step forward
+     * @throws NullPointerException if the iterator is off end
+     */
+    public void advanceIterator() throws NullPointerException {
+        if (iterator == null) {
+            throw new NullPointerException("Iterator is off end.");
+        }
+        if (++iteratorOffset == iterator.count) {
+            iterator = iterator.next;
+            iteratorOffset = 0;
+        }
+    }
+
+    /**
+     * Moves the iterator one position back in the list
+     * @precondition Iterator must not be null
+     * @postcondition Iterator moves one step backward
+     * @throws NullPointerException if the iterator is off end
+     */
+    public void reverseIterator() throws NullPointerException {
+        if (iterator == null) {
+            throw new NullPointerException("Iterator is off end.");
+        }
+        if (iteratorOffset-- == 0) {
+            iterator = iterator.prev;
+            iteratorOffset = (iterator == null) ? 0 : iterator.count - 1;
+        }
+    }
+
+    /**
+     * Advances the iterator to location within the list
+     * specified by the given index, skipping whole nodes at a time.
+     * @param index the index at which to place the iterator.
+     * @precondition index >= 0, index < length
+     * @throws IndexOutOfBoundsException when the index is out of bounds
+     */
+    public void advanceIteratorToIndex(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        Node node = first;
+        while (index >= node.count) {
+            index -= node.count;
+            node = node.next;
+        }
+        iterator = node;
+        iteratorOffset = index;
+    }
+
+    /**** CURSORS ****/
+
+    /**
+     * Returns an iterator over the data from first to last. Each call
+     * gets its own cursor, independent of the internal iterator. The list
+     * must not be structurally modified while the iterator is in use.
+     * @return an iterator from the first to the last element.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private Node node = first;
+            private int offset = 0;
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return node != null;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() throws NoSuchElementException {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException("List was modified.");
+                }
+                if (node == null) {
+                    throw new NoSuchElementException("No more elements.");
+                }
+                T data = (T) node.items[offset];
+                if (++offset == node.count) {
+                    node = node.next;
+                    offset = 0;
+                }
+                return data;
+            }
+        };
+    }
+
+    /**
+     * Returns a Spliterator over the data from first to last. Splitting
+     * copies batches from the front into arrays, which parallel streams
+     * process while the rest of the list is walked.
+     * @return a sized, ordered Spliterator.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(iterator(), length, Spliterator.ORDERED);
+    }
+
+    /**
+     * Returns a sequential Stream over the data from first to last.
+     * @return a Stream of the data.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel Stream over the data from first to last.
+     * @return a parallel Stream of the data.
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**** ADDITIONAL OPERATIONS ****/
+
+    /**
+     * Re-sets the list to empty as if the
+     * default constructor had just been called
+     */
+    public void clear() {
+        first = null;
+        last = null;
+        iterator = null;
+        iteratorOffset = 0;
+        length = 0;
+        modCount++;
+    }
+
+    /**
+     * Converts the list to a String, with each value separated by a blank
+     * space. At the end of the String, place a new line character
+     * @return the list as a String
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (Node node = first; node != null; node = node.next) {
+            for (int i = 0; i < node.count; i++) {
+                result.append(node.items[i] + " ");
+            }
+        }
+        return result.toString() + "\n";
+    }
+
+    /**
+     * Determines whether the given Object is another UnrolledLinkedList,
+     * containing the same data in the same order
+     * @param obj another Object
+     * @return whether there is equality
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof UnrolledLinkedList)) {
+            return false;
+        }
+        UnrolledLinkedList<?> other = (UnrolledLinkedList<?>) obj;
+        if (length != other.length) {
+            return false;
+        }
+        UnrolledLinkedList<?>.Node theirs = other.first;
+        int theirOffset = 0;
+        for (Node mine = first; mine != null; mine = mine.next) {
+            for (int i = 0; i < mine.count; i++) {
+                if (theirOffset == theirs.count) {
+                    theirs = theirs.next;
+                    theirOffset = 0;
+                }
+                Object a = mine.items[i];
+                Object b = theirs.items[theirOffset++];
+                if (a == null ? b != null : !a.equals(b)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash code consistent with equals
+     * @return a hash of the elements in order
+     */
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (Node node = first; node != null; node = node.next) {
+            for (int i = 0; i < node.count; i++) {
+                hash = 31 * hash + (node.items[i] == null ? 0 : node.items[i].hashCode());
+            }
+        }
+        return hash;
+    }
+
+    /**CHALLENGE METHODS*/
+
+    /**
+     * Moves all elements in the list towards the end
+     * of the list the number of times specified
+     * Any element that falls off the end of the list as it
+     * moves forward will be placed the front of the list
+     * For example: [1, 2, 3, 4, 5], numMoves = 2 -> [4, 5, 1, 2 ,3]
+     * Whole nodes are relinked, so only the node holding the new
+     * front is split.
+     * @param numMoves the number of times to move each element.
+     * @precondition numMoves >= 0
+     * @postcondition iterator position unchanged (i.e. still referencing
+     * the same element in the list, regardless of its new location)
+     * @throws IllegalArgumentException when numMoves < 0
+     */
+    public void spinList(int numMoves) throws IllegalArgumentException {
+        if (numMoves < 0) {
+            throw new IllegalArgumentException("numMoves cannot be negative.");
+        }
+        if (length <= 1 || numMoves % length == 0) {
+            return;
+        }
+        numMoves = numMoves % length;
+
+        // Find the element that becomes the new first one
+        int index = length - numMoves;
+        Node node = first;
+        while (index >= node.count) {
+            index -= node.count;
+            node = node.next;
+        }
+        if (index > 0) {
+            split(node, index);
+            node = node.next;
+        }
+
+        // Close the ring, then open it before the new first node
+        last.next = first;
+        first.prev = last;
+        first = node;
+        last = node.prev;
+        last.next = null;
+        first.prev = null;
+        modCount++;
+    }
+
+    /**
+     * Splices together two lists to create a third list
+     * which contains alternating values from this list
+     * and the given parameter
+     * For example: [1,2,3] and [4,5,6] -> [1,4,2,5,3,6]
+     * For example: [1, 2, 3, 4] and [5, 6] -> [1, 5, 2, 6, 3, 4]
+     * @param list the second list
+     * @return a new list, which is the result of
+     * alternating this and list
+     * @postcondition this and list are unchanged
+     */
+    @SuppressWarnings("unchecked")
+    public UnrolledLinkedList<T> altLists(UnrolledLinkedList<T> list) {
+        if (list == null) {
+            return new UnrolledLinkedList<>(this);
+        }
+        UnrolledLinkedList<T> result = new UnrolledLinkedList<>(nodeCapacity);
+        Node thisNode = this.first;
+        int thisOffset = 0;
+        Node listNode = list.first;
+        int listOffset = 0;
+        while (thisNode != null || listNode != null) {
+            if (thisNode != null) {
+                result.addLast((T) thisNode.items[thisOffset]);
+                if (++thisOffset == thisNode.count) {
+                    thisNode = thisNode.next;
+                    thisOffset = 0;
+                }
+            }
+            if (listNode != null) {
+                result.addLast((T) listNode.items[listOffset]);
+                if (++listOffset == listNode.count) {
+                    listNode = listNode.next;
+                    listOffset = 0;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns each element in the list along with its
+     * numerical position from 1 to n, followed by a newline.
+     * @return the numbered list elements as a String.
+     */
+    public String numberedListString() {
+        StringBuilder result = new StringBuilder();
+        int position = 1;
+        for (Node node = first; node != null; node = node.next) {
+            for (int i = 0; i < node.count; i++) {
+                result.append(position++).append(". ")
+                      .append(node.items[i]).append("\n");
+            }
+        }
+        return result.append("\n").toString();
+    }
+
+    /**
+     * Searches the list for a given element's index.
+     * @param data the data whose index to locate.
+     * @return the index of the data or -1 if the data is not contained
+     * in the list.
+     */
+    public int findIndex(T data) {
+        int index = 0;
+        for (Node node = first; node != null; node = node.next) {
+            for (int i = 0; i < node.count; i++) {
+                if ((data == null && node.items[i] == null)
+                        || (data != null && data.equals(node.items[i]))) {
+                    return index;
+                }
+                index++;
+            }
+        }
+        return -1;
+    }
+
+    /**** HELPERS ****/
+
+    /**
+     * Links a node in front of the first node.
+     * @param node the node to link.
+     */
+    private void linkFirst(Node node) {
+        node.next = first;
+        if (first == null) {
+            last = node;
+        } else {
+            first.prev = node;
+        }
+        first = node;
+    }
+
+    /**
+     * Links a node after the last node.
+     * @param node the node to link.
+     */
+    private void linkLast(Node node) {
+        node.prev = last;
+        if (last == null) {
+            first = node;
+        } else {
+            last.next = node;
+        }
+        last = node;
+    }
+
+    /**
+     * Unlinks an empty node from the list.
+     * @param node the node to unlink.
+     */
+    private void unlink(Node node) {
+        if (node.prev == null) {
+            first = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            last = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
+    }
+
+    /**
+     * Moves the elements from an offset onward into a new node linked
+     * after the given one, moving the iterator along if needed.
+     * @param node the node to split.
+     * @param at the offset of the first element to move.
+     */
+    private void split(Node node, int at) {
+        Node tail = new Node();
+        tail.count = node.count - at;
+        System.arraycopy(node.items, at, tail.items, 0, tail.count);
+        Arrays.fill(node.items, at, node.count, null);
+        node.count = at;
+        tail.prev = node;
+        tail.next = node.next;
+        if (node.next == null) {
+            last = tail;
+        } else {
+            node.next.prev = tail;
+        }
+        node.next = tail;
+        if (iterator == node && iteratorOffset >= at) {
+            iterator = tail;
+            iteratorOffset -= at;
+        }
+    }
+
+    /**
+     * Inserts into a node that has room, keeping the iterator on
+     * the same element.
+     * @param node the node to insert into.
+     * @param offset the offset of the new element.
+     * @param data the data to insert.
+     */
+    private void insertInNode(Node node, int offset, Object data) {
+        System.arraycopy(node.items, offset, node.items, offset + 1, node.count - offset);
+        node.items[offset] = data;
+        node.count++;
+        if (iterator == node && iteratorOffset >= offset) {
+            iteratorOffset++;
+        }
+    }
+
+    /**
+     * Removes an element from a node, unlinking the node if it becomes
+     * empty and merging it with its successor if both fit in one node.
+     * The iterator goes off end if it referenced the removed element.
+     * @param node the node holding the element.
+     * @param offset the offset of the element.
+     */
+    private void removeFromNode(Node node, int offset) {
+        System.arraycopy(node.items, offset + 1, node.items, offset, node.count - offset - 1);
+        node.items[--node.count] = null;
+        length--;
+        modCount++;
+        if (iterator == node) {
+            if (iteratorOffset == offset) {
+                iterator = null;
+            } else if (iteratorOffset > offset) {
+                iteratorOffset--;
+            }
+        }
+        if (node.count == 0) {
+            unlink(node);
+        } else if (node.next != null && node.count + node.next.count <= nodeCapacity / 2) {
+            Node next = node.next;
+            System.arraycopy(next.items, 0, node.items, node.count, next.count);
+            if (iterator == next) {
+                iterator = node;
+                iteratorOffset += node.count;
+            }
+            node.count += next.count;
+            next.count = 0;
+            unlink(next);
+        }
+    }
+}